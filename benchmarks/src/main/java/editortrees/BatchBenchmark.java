@@ -0,0 +1,75 @@
+package editortrees;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// A patch of evenly spread two-character insertions, as a formatter or a
+// replace-all would produce, applied with applyBatch and with one add() per
+// character. Each operation applies the patch and then removes it again.
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class BatchBenchmark {
+
+	@Param({ "100000", "1000000" })
+	public int size;
+
+	@Param({ "10", "1000", "10000" })
+	public int edits;
+
+	private EditTree tree;
+	private List<TextEdit> insertions;
+	private List<TextEdit> deletions;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.tree = new EditTree(Documents.text(this.size, 1));
+		this.insertions = new ArrayList<>();
+		this.deletions = new ArrayList<>();
+		int gap = this.size / this.edits;
+		for (int i = 0; i < this.edits; i++) {
+			this.insertions.add(TextEdit.insert(i * gap, "()"));
+			this.deletions.add(TextEdit.delete(i * gap + 2 * i, 2));
+		}
+	}
+
+	@Benchmark
+	public EditTree applyBatch() {
+		this.tree.applyBatch(this.insertions);
+		this.tree.applyBatch(this.deletions);
+		return this.tree;
+	}
+
+	@Benchmark
+	public EditTree sequential() {
+		for (int i = this.edits - 1; i >= 0; i--) {
+			int pos = this.insertions.get(i).getPos();
+			this.tree.add(')', pos);
+			this.tree.add('(', pos);
+		}
+		for (int i = this.edits - 1; i >= 0; i--) {
+			int pos = this.deletions.get(i).getPos();
+			this.tree.delete(pos);
+			this.tree.delete(pos);
+		}
+		return this.tree;
+	}
+}
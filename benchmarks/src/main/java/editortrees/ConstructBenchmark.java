@@ -0,0 +1,51 @@
+package editortrees;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Loading a document: the linear-time String constructor against appending
+// one character at a time.
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class ConstructBenchmark {
+
+	@Param({ "1000", "10000", "100000", "1000000", "10000000" })
+	public int size;
+
+	private String text;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.text = Documents.text(this.size, 1);
+	}
+
+	@Benchmark
+	public EditTree fromString() {
+		return new EditTree(this.text);
+	}
+
+	@Benchmark
+	public EditTree byAppending() {
+		EditTree t = new EditTree();
+		for (int i = 0; i < this.text.length(); i++)
+			t.add(this.text.charAt(i));
+		return t;
+	}
+}
@@ -0,0 +1,43 @@
+package editortrees;
+
+import java.util.Random;
+
+// Shared inputs for the benchmarks: document text and random positions that
+// are the same from run to run.
+
+final class Documents {
+
+	static final int POSITIONS = 1 << 16; // a power of two, for cheap wrapping
+
+	private Documents() {
+	}
+
+	/**
+	 * @return size characters of lowercase words and spaces, with a newline
+	 *         every 80 characters or so
+	 */
+	static String text(int size, long seed) {
+		Random random = new Random(seed);
+		StringBuilder s = new StringBuilder(size);
+		while (s.length() < size) {
+			if (s.length() % 80 == 79)
+				s.append('\n');
+			else if (random.nextInt(6) == 0)
+				s.append(' ');
+			else
+				s.append((char) ('a' + random.nextInt(26)));
+		}
+		return s.toString();
+	}
+
+	/**
+	 * @return POSITIONS random positions in [0, bound)
+	 */
+	static int[] positions(int bound, long seed) {
+		Random random = new Random(seed);
+		int[] positions = new int[POSITIONS];
+		for (int i = 0; i < positions.length; i++)
+			positions[i] = random.nextInt(bound);
+		return positions;
+	}
+}
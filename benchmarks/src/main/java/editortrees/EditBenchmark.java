@@ -0,0 +1,95 @@
+package editortrees;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Single-character edits under different editing patterns. Every operation
+// undoes its own growth so the document stays at the parameterized size for
+// the whole run.
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class EditBenchmark {
+
+	public enum Pattern {
+		/** add at the end, then delete it again */
+		APPEND,
+		/** add at a random position, then delete it again */
+		RANDOM_INSERT,
+		/** overtype: add at a cursor that moves right, deleting the next character */
+		TYPING,
+		/** add a 4K block one character at a time at a random position, then delete it */
+		LARGE_PASTE
+	}
+
+	static final int PASTE_LENGTH = 4096;
+
+	@Param({ "1000", "10000", "100000", "1000000", "10000000" })
+	public int size;
+
+	@Param
+	public Pattern pattern;
+
+	private EditTree tree;
+	private int[] positions;
+	private int next;
+	private int cursor;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.tree = new EditTree(Documents.text(this.size, 1));
+		this.positions = Documents.positions(this.size, 2);
+		this.cursor = this.size / 2;
+	}
+
+	@Benchmark
+	public char edit(RotationCounter counter) {
+		char deleted;
+		switch (this.pattern) {
+		case APPEND:
+			this.tree.add('x');
+			deleted = this.tree.delete(this.size);
+			break;
+		case RANDOM_INSERT: {
+			int pos = this.positions[this.next++ & (Documents.POSITIONS - 1)];
+			this.tree.add('x', pos);
+			deleted = this.tree.delete(pos);
+			break;
+		}
+		case TYPING:
+			this.tree.add('x', this.cursor);
+			this.cursor++;
+			if (this.cursor == this.size)
+				this.cursor = 0;
+			deleted = this.tree.delete(this.cursor);
+			break;
+		default: {
+			int pos = this.positions[this.next++ & (Documents.POSITIONS - 1)];
+			for (int i = 0; i < PASTE_LENGTH; i++)
+				this.tree.add('x', pos + i);
+			deleted = 0;
+			for (int i = 0; i < PASTE_LENGTH; i++)
+				deleted = this.tree.delete(pos);
+			break;
+		}
+		}
+		counter.record(this.tree);
+		return deleted;
+	}
+}
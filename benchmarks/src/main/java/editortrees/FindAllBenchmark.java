@@ -0,0 +1,65 @@
+package editortrees;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Scaling of findAll with the number of worker threads. Every search scans the
+// whole document, so the sequential find of a missing pattern is the baseline.
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class FindAllBenchmark {
+
+	@Param({ "1000000", "10000000" })
+	public int size;
+
+	@Param({ "1", "2", "4", "8" })
+	public int threads;
+
+	private EditTree tree;
+	private ForkJoinPool pool;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.tree = new EditTree(Documents.text(this.size, 1));
+		this.pool = new ForkJoinPool(this.threads);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.pool.shutdown();
+	}
+
+	@Benchmark
+	public int[] findAllPresent() {
+		return this.tree.findAll("the", this.pool);
+	}
+
+	@Benchmark
+	public int[] findAllMissing() {
+		return this.tree.findAll("NEEDLE", this.pool);
+	}
+
+	@Benchmark
+	public int findMissing() {
+		return this.tree.find("NEEDLE");
+	}
+}
@@ -0,0 +1,68 @@
+package editortrees;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Literal and regex search. The missing pattern forces a scan of the whole
+// document; the present one is planted three quarters of the way in. The
+// toString regex is the baseline that copies the document first.
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class FindBenchmark {
+
+	static final String NEEDLE = "needle in a haystack";
+	static final Pattern NEEDLE_REGEX = Pattern.compile("needle\\s+in\\s+a\\s+\\w+");
+
+	@Param({ "1000", "10000", "100000", "1000000", "10000000" })
+	public int size;
+
+	private EditTree tree;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		String text = Documents.text(this.size, 1);
+		int at = this.size * 3 / 4;
+		this.tree = new EditTree(text.substring(0, at) + NEEDLE + text.substring(at));
+	}
+
+	@Benchmark
+	public int findPresent() {
+		return this.tree.find(NEEDLE);
+	}
+
+	@Benchmark
+	public int findMissing() {
+		return this.tree.find("NEEDLE");
+	}
+
+	@Benchmark
+	public MatchResult findRegexPresent() {
+		return this.tree.findRegex(NEEDLE_REGEX, 0);
+	}
+
+	@Benchmark
+	public boolean findRegexPresentInString() {
+		Matcher matcher = NEEDLE_REGEX.matcher(this.tree.toString());
+		return matcher.find();
+	}
+}
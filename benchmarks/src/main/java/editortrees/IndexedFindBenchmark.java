@@ -0,0 +1,61 @@
+package editortrees;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Repeated search while editing, with and without a q-gram index. Each
+// operation types a character at a random position, searches for a word
+// planted near the end, and deletes the character again, so the document is
+// the same from one operation to the next.
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class IndexedFindBenchmark {
+
+	static final String NEEDLE = "quizzical";
+
+	@Param({ "100000", "1000000", "10000000" })
+	public int size;
+
+	@Param({ "0", "3", "4" })
+	public int q; // 0 for no index
+
+	private EditTree tree;
+	private int[] positions;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		String text = Documents.text(this.size, 1);
+		int at = this.size * 3 / 4;
+		this.tree = new EditTree(text.substring(0, at) + NEEDLE + text.substring(at));
+		if (this.q > 0)
+			this.tree.attachIndex(this.q);
+		this.positions = Documents.positions(this.size, 2);
+	}
+
+	@Benchmark
+	public int editAndFind() {
+		int pos = this.positions[this.next++ & (Documents.POSITIONS - 1)];
+		this.tree.add('x', pos);
+		int found = this.tree.find(NEEDLE);
+		this.tree.delete(pos);
+		return found;
+	}
+}
@@ -0,0 +1,101 @@
+package editortrees;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Positional reads: single characters, viewport-sized ranges, whole-document
+// serialization, and the old getInOrderPos() descent for comparison with
+// select(). The largest document is 10^8 characters: 4GB of 40-byte nodes
+// plus its text, so this benchmark forks with a 6GB heap, which is still
+// small enough for compressed object pointers.
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms6g", "-Xmx6g" })
+public class ReadBenchmark {
+
+	static final int VIEWPORT = 16 * 1024;
+
+	@Param({ "1000", "10000", "100000", "1000000", "10000000", "100000000" })
+	public int size;
+
+	private EditTree tree;
+	private int[] positions;
+	private int[] viewports;
+	private char[] buffer;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.tree = new EditTree(Documents.text(this.size, 1));
+		this.positions = Documents.positions(this.size, 2);
+		this.viewports = Documents.positions(Math.max(1, this.size - VIEWPORT), 3);
+		this.buffer = new char[VIEWPORT];
+	}
+
+	private int nextPosition(int[] from) {
+		return from[this.next++ & (Documents.POSITIONS - 1)];
+	}
+
+	@Benchmark
+	public char get() {
+		return this.tree.get(nextPosition(this.positions));
+	}
+
+	/**
+	 * The descent get(int) used before Node.select(): getInOrderPos() at
+	 * every step, O(log^2 n).
+	 */
+	@Benchmark
+	public char getByInOrderPos() {
+		int pos = nextPosition(this.positions);
+		Node currentNode = this.tree.getRoot();
+		while (currentNode.getInOrderPos() != pos) {
+			if (currentNode.getInOrderPos() > pos)
+				currentNode = currentNode.left;
+			else
+				currentNode = currentNode.right;
+		}
+		return currentNode.element;
+	}
+
+	@Benchmark
+	public char[] getViewport() {
+		int length = Math.min(VIEWPORT, this.size);
+		this.tree.get(nextPosition(this.viewports), length, this.buffer, 0);
+		return this.buffer;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Measurement(iterations = 10)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public String toStringAll() {
+		return this.tree.toString();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Measurement(iterations = 10)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void writeToAll() throws IOException {
+		this.tree.writeTo(Writer.nullWriter());
+	}
+}
@@ -0,0 +1,35 @@
+package editortrees;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Reports the rotations a benchmark performs as a secondary JMH result, so
+// that a change in rebalancing shows up next to the throughput it explains.
+
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class RotationCounter {
+
+	public long rotations;
+
+	private int last;
+
+	@Setup(Level.Iteration)
+	public void reset() {
+		this.rotations = 0;
+		this.last = -1;
+	}
+
+	/**
+	 * Adds the rotations t has done since the last call.
+	 */
+	void record(EditTree t) {
+		int count = t.totalRotationCount();
+		if (this.last >= 0)
+			this.rotations += count - this.last;
+		this.last = count;
+	}
+}
@@ -0,0 +1,49 @@
+package editortrees;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// split() at a random position followed by concatenate() of the two halves,
+// which leaves the document as it was for the next operation.
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class SplitConcatenateBenchmark {
+
+	@Param({ "1000", "10000", "100000", "1000000", "10000000" })
+	public int size;
+
+	private EditTree tree;
+	private int[] positions;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.tree = new EditTree(Documents.text(this.size, 1));
+		this.positions = Documents.positions(this.size, 2);
+	}
+
+	@Benchmark
+	public EditTree splitThenConcatenate(RotationCounter counter) {
+		EditTree right = this.tree.split(this.positions[this.next++ & (Documents.POSITIONS - 1)]);
+		this.tree.concatenate(right);
+		counter.record(this.tree);
+		return this.tree;
+	}
+}
@@ -0,0 +1,49 @@
+package editortrees;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Counting newlines with a stream over the tree, sequential and parallel.
+// The parallel case runs in the common pool; vary
+// -Djava.util.concurrent.ForkJoinPool.common.parallelism to see the scaling.
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class StreamBenchmark {
+
+	@Param({ "1000000", "10000000" })
+	public int size;
+
+	private EditTree tree;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.tree = new EditTree(Documents.text(this.size, 1));
+	}
+
+	@Benchmark
+	public long countSequential() {
+		return this.tree.chars().filter(c -> c == '\n').count();
+	}
+
+	@Benchmark
+	public long countParallel() {
+		return this.tree.chars().parallel().filter(c -> c == '\n').count();
+	}
+}
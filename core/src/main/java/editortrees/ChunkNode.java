@@ -0,0 +1,118 @@
+package editortrees;
+
+
+// A node in a ChunkedEditTree: a height-balanced binary tree with rank whose
+// nodes each hold a run of characters instead of a single one.
+
+public class ChunkNode {
+
+	char[] chunk;     // characters 0 .. length-1 are in use
+	int length;
+	ChunkNode left, right; // subtrees
+	int size;   // characters in this subtree
+	int height;
+
+	public ChunkNode(int capacity) {
+		this.chunk = new char[capacity];
+		this.length = 0;
+		this.update();
+	}
+
+	/**
+	 * Recomputes size and height from the children. O(1)
+	 */
+	public void update() {
+		this.size = this.length;
+		this.height = 0;
+		if (this.left != null) {
+			this.size += this.left.size;
+			this.height = this.left.height + 1;
+		}
+		if (this.right != null) {
+			this.size += this.right.size;
+			this.height = Math.max(this.height, this.right.height + 1);
+		}
+	}
+
+	/**
+	 * @return the number of characters before this chunk in its own subtree
+	 */
+	public int rank() {
+		if (this.left == null)
+			return 0;
+		return this.left.size;
+	}
+
+	/**
+	 * @return left height minus right height
+	 */
+	public int balance() {
+		return height(this.left) - height(this.right);
+	}
+
+	public boolean isFull() {
+		return this.length == this.chunk.length;
+	}
+
+	/**
+	 * Inserts c at offset within this chunk, which must not be full.
+	 */
+	public void insert(char c, int offset) {
+		System.arraycopy(this.chunk, offset, this.chunk, offset + 1, this.length - offset);
+		this.chunk[offset] = c;
+		this.length++;
+	}
+
+	/**
+	 * Removes and returns the character at offset within this chunk.
+	 */
+	public char remove(int offset) {
+		char c = this.chunk[offset];
+		System.arraycopy(this.chunk, offset + 1, this.chunk, offset, this.length - offset - 1);
+		this.length--;
+		return c;
+	}
+
+	/**
+	 * Moves the characters from offset on into a new chunk of the same
+	 * capacity, which is returned detached from the tree.
+	 */
+	public ChunkNode cut(int offset) {
+		ChunkNode tail = new ChunkNode(this.chunk.length);
+		tail.length = this.length - offset;
+		System.arraycopy(this.chunk, offset, tail.chunk, 0, tail.length);
+		this.length = offset;
+		tail.update();
+		return tail;
+	}
+
+	public ChunkNode rotateLeft() {
+		ChunkNode newRoot = this.right;
+		this.right = newRoot.left;
+		newRoot.left = this;
+		this.update();
+		newRoot.update();
+		return newRoot;
+	}
+
+	public ChunkNode rotateRight() {
+		ChunkNode newRoot = this.left;
+		this.left = newRoot.right;
+		newRoot.right = this;
+		this.update();
+		newRoot.update();
+		return newRoot;
+	}
+
+	static int height(ChunkNode n) {
+		if (n == null)
+			return -1;
+		return n.height;
+	}
+
+	static int size(ChunkNode n) {
+		if (n == null)
+			return 0;
+		return n.size;
+	}
+}
@@ -0,0 +1,565 @@
+package editortrees;
+
+
+// A rope-style variant of EditTree: the same positional operations, but each
+// node holds a chunk of up to chunkCapacity characters, so a document costs a
+// few bytes per character instead of a whole Node per character, and
+// neighbouring characters share a cache line. Deletes, splits and
+// concatenations merge a chunk left less than half full with its neighbour,
+// so chunks stay at least half full however the document was edited.
+
+public class ChunkedEditTree {
+
+	public static final int DEFAULT_CHUNK_CAPACITY = 64;
+
+	private ChunkNode root;
+	private final int chunkCapacity;
+	private int rotations = 0;
+
+	/**
+	 * Construct an empty tree with the default chunk capacity
+	 */
+	public ChunkedEditTree() {
+		this(DEFAULT_CHUNK_CAPACITY);
+	}
+
+	/**
+	 * Construct an empty tree
+	 *
+	 * @param chunkCapacity
+	 *            the most characters a single node may hold
+	 * @throws IllegalArgumentException
+	 *             if chunkCapacity is less than 2
+	 */
+	public ChunkedEditTree(int chunkCapacity) {
+		if (chunkCapacity < 2)
+			throw new IllegalArgumentException("chunks must hold at least 2 characters");
+		this.chunkCapacity = chunkCapacity;
+	}
+
+	/**
+	 * Create a tree whose toString is s, in O(N) time, with every chunk full
+	 * except possibly the last.
+	 *
+	 * @param s
+	 * @param chunkCapacity
+	 *            the most characters a single node may hold
+	 */
+	public ChunkedEditTree(String s, int chunkCapacity) {
+		this(chunkCapacity);
+		char[] chars = s.toCharArray();
+		int chunks = (chars.length + chunkCapacity - 1) / chunkCapacity;
+		this.root = build(chars, 0, chunks);
+	}
+
+	/**
+	 * Builds a perfectly balanced tree from chunks lo (inclusive) to hi
+	 * (exclusive) of chars.
+	 */
+	private ChunkNode build(char[] chars, int lo, int hi) {
+		if (lo >= hi)
+			return null;
+		int mid = (lo + hi) >>> 1;
+		ChunkNode n = new ChunkNode(this.chunkCapacity);
+		n.length = Math.min(this.chunkCapacity, chars.length - mid * this.chunkCapacity);
+		System.arraycopy(chars, mid * this.chunkCapacity, n.chunk, 0, n.length);
+		n.left = build(chars, lo, mid);
+		n.right = build(chars, mid + 1, hi);
+		n.update();
+		return n;
+	}
+
+	/**
+	 * @return the height of the tree of chunks; -1 if it is empty
+	 */
+	public int height() {
+		return ChunkNode.height(this.root);
+	}
+
+	/**
+	 * @return the number of characters in this tree
+	 */
+	public int size() {
+		return ChunkNode.size(this.root);
+	}
+
+	public int chunkCapacity() {
+		return this.chunkCapacity;
+	}
+
+	public int totalRotationCount() {
+		return this.rotations;
+	}
+
+	/**
+	 * @return The root of this tree; null if it is empty.
+	 */
+	public ChunkNode getRoot() {
+		return this.root;
+	}
+
+	/**
+	 * return the string produced by an inorder traversal of this tree, in O(N)
+	 */
+	public String toString() {
+		return get(0, this.size());
+	}
+
+	/**
+	 * @param c
+	 *            character to add to the end of this tree.
+	 */
+	public void add(char c) {
+		add(c, this.size());
+	}
+
+	/**
+	 * O(log N + chunkCapacity)
+	 *
+	 * @param c
+	 *            character to add
+	 * @param pos
+	 *            character added in this inorder position
+	 * @throws IndexOutOfBoundsException
+	 *             if pos is negative or too large for this tree
+	 */
+	public void add(char c, int pos) throws IndexOutOfBoundsException {
+		if (pos > this.size() || pos < 0)
+			throw new IndexOutOfBoundsException();
+		this.root = add(this.root, c, pos);
+	}
+
+	private ChunkNode add(ChunkNode n, char c, int pos) {
+		if (n == null) {
+			n = new ChunkNode(this.chunkCapacity);
+			n.insert(c, 0);
+			n.update();
+			return n;
+		}
+		int rank = n.rank();
+		int offset = pos - rank;
+		if (offset < 0) {
+			n.left = add(n.left, c, pos);
+		} else if (offset < n.length || (offset == n.length && !n.isFull())) {
+			if (n.isFull()) {
+				// the upper half becomes the first chunk of the right subtree
+				n.right = addFirst(n.right, n.cut(n.length / 2));
+				return add(rebalance(n), c, pos);
+			}
+			n.insert(c, offset);
+		} else {
+			// appending past a full chunk starts the next one, so typing at
+			// the end of a document leaves full chunks behind
+			n.right = add(n.right, c, offset - n.length);
+		}
+		return rebalance(n);
+	}
+
+	private ChunkNode addFirst(ChunkNode n, ChunkNode chunk) {
+		if (n == null)
+			return chunk;
+		n.left = addFirst(n.left, chunk);
+		return rebalance(n);
+	}
+
+	/**
+	 * O(log N + chunkCapacity)
+	 *
+	 * @param pos
+	 *            position of character to delete from this tree
+	 * @return the character that is deleted
+	 * @throws IndexOutOfBoundsException
+	 */
+	public char delete(int pos) throws IndexOutOfBoundsException {
+		if (pos >= this.size() || pos < 0)
+			throw new IndexOutOfBoundsException("Number is too large.");
+		char[] deleted = new char[1];
+		this.root = delete(this.root, pos, deleted);
+		// the chunk that lost a character holds pos - 1 or pos
+		if (pos > 0)
+			refill(pos - 1);
+		if (pos < this.size())
+			refill(pos);
+		return deleted[0];
+	}
+
+	private ChunkNode delete(ChunkNode n, int pos, char[] deleted) {
+		int rank = n.rank();
+		if (pos < rank) {
+			n.left = delete(n.left, pos, deleted);
+		} else if (pos < rank + n.length) {
+			deleted[0] = n.remove(pos - rank);
+			if (n.length == 0)
+				return removeNode(n);
+		} else {
+			n.right = delete(n.right, pos - rank - n.length, deleted);
+		}
+		return rebalance(n);
+	}
+
+	/**
+	 * Unlinks the (empty) chunk n from its subtree.
+	 *
+	 * @return the new root of the subtree
+	 */
+	private ChunkNode removeNode(ChunkNode n) {
+		if (n.left == null)
+			return n.right;
+		if (n.right == null)
+			return n.left;
+		ChunkNode[] first = new ChunkNode[1];
+		ChunkNode right = removeFirst(n.right, first);
+		first[0].left = n.left;
+		first[0].right = right;
+		return rebalance(first[0]);
+	}
+
+	private ChunkNode removeFirst(ChunkNode n, ChunkNode[] first) {
+		if (n.left == null) {
+			first[0] = n;
+			return n.right;
+		}
+		n.left = removeFirst(n.left, first);
+		return rebalance(n);
+	}
+
+	/**
+	 * Brings the chunk holding pos up to at least half full, if it is not the
+	 * only chunk, by merging it with a neighbour when they fit in one chunk
+	 * and otherwise moving characters over from the neighbour.
+	 * O(log N + chunkCapacity)
+	 */
+	private void refill(int pos) {
+		while (true) {
+			int[] start = new int[1];
+			ChunkNode c = locate(pos, start);
+			if (c.length >= c.chunk.length / 2 || c.length == this.size())
+				return;
+			// a and b are neighbours, a first, and b starts at boundary
+			ChunkNode a;
+			ChunkNode b;
+			int boundary;
+			if (start[0] + c.length < this.size()) {
+				a = c;
+				boundary = start[0] + c.length;
+				b = locate(boundary, start);
+			} else {
+				b = c;
+				boundary = start[0];
+				a = locate(boundary - 1, start);
+			}
+			// a concatenated tree may have come with another capacity
+			int capacity = Math.min(a.chunk.length, b.chunk.length);
+			int half = capacity / 2;
+			char[] moved = new char[capacity];
+			if (a.length + b.length <= capacity) {
+				int count = b.length;
+				this.root = take(this.root, boundary, count, moved);
+				this.root = put(this.root, boundary, moved, count, true);
+				pos = boundary - 1; // in the merged chunk, which may still be short
+			} else if (a.length < half) {
+				int count = half - a.length;
+				this.root = take(this.root, boundary, count, moved);
+				this.root = put(this.root, boundary, moved, count, true);
+				return;
+			} else if (b.length < half) {
+				int count = half - b.length;
+				this.root = take(this.root, boundary - count, count, moved);
+				this.root = put(this.root, boundary - count, moved, count, false);
+				return;
+			} else {
+				return; // short only against its own, larger capacity
+			}
+		}
+	}
+
+	/**
+	 * @param start
+	 *            receives the position of the first character of the chunk
+	 * @return the chunk holding pos
+	 */
+	private ChunkNode locate(int pos, int[] start) {
+		ChunkNode currentNode = this.root;
+		int offset = 0;
+		while (true) {
+			int rank = currentNode.rank();
+			if (pos < offset + rank) {
+				currentNode = currentNode.left;
+			} else if (pos < offset + rank + currentNode.length) {
+				start[0] = offset + rank;
+				return currentNode;
+			} else {
+				offset += rank + currentNode.length;
+				currentNode = currentNode.right;
+			}
+		}
+	}
+
+	/**
+	 * Removes the count characters from pos on, which must all be in one
+	 * chunk, copying them to out. A chunk left empty is unlinked.
+	 * 
+	 * @return the new root of the subtree
+	 */
+	private ChunkNode take(ChunkNode n, int pos, int count, char[] out) {
+		int rank = n.rank();
+		if (pos < rank) {
+			n.left = take(n.left, pos, count, out);
+		} else if (pos < rank + n.length) {
+			int offset = pos - rank;
+			System.arraycopy(n.chunk, offset, out, 0, count);
+			System.arraycopy(n.chunk, offset + count, n.chunk, offset, n.length - offset - count);
+			n.length -= count;
+			if (n.length == 0)
+				return removeNode(n);
+		} else {
+			n.right = take(n.right, pos - rank - n.length, count, out);
+		}
+		return rebalance(n);
+	}
+
+	/**
+	 * Inserts count characters of chars at pos, into the chunk that ends
+	 * there (append) or the one that starts there, which must have room.
+	 * 
+	 * @return the new root of the subtree
+	 */
+	private ChunkNode put(ChunkNode n, int pos, char[] chars, int count, boolean append) {
+		int rank = n.rank();
+		int offset = pos - rank;
+		if (append ? offset <= 0 : offset < 0) {
+			n.left = put(n.left, pos, chars, count, append);
+		} else if (append ? offset <= n.length : offset < n.length) {
+			System.arraycopy(n.chunk, offset, n.chunk, offset + count, n.length - offset);
+			System.arraycopy(chars, 0, n.chunk, offset, count);
+			n.length += count;
+		} else {
+			n.right = put(n.right, offset - n.length, chars, count, append);
+		}
+		return rebalance(n);
+	}
+
+	/**
+	 * @param pos
+	 *            position in the tree
+	 * @return the character at that position
+	 * @throws IndexOutOfBoundsException
+	 */
+	public char get(int pos) throws IndexOutOfBoundsException {
+		if (pos >= this.size() || pos < 0)
+			throw new IndexOutOfBoundsException();
+		ChunkNode currentNode = this.root;
+		while (true) {
+			int rank = currentNode.rank();
+			if (pos < rank) {
+				currentNode = currentNode.left;
+			} else if (pos < rank + currentNode.length) {
+				return currentNode.chunk[pos - rank];
+			} else {
+				pos -= rank + currentNode.length;
+				currentNode = currentNode.right;
+			}
+		}
+	}
+
+	/**
+	 * O(log N + length), copying whole chunks at a time.
+	 *
+	 * @param pos
+	 *            location of the beginning of the string to retrieve
+	 * @param length
+	 *            length of the string to retrieve
+	 * @return string of length that starts in position pos
+	 * @throws IndexOutOfBoundsException
+	 *             unless both pos and pos+length-1 are legitimate indexes
+	 *             within this tree.
+	 */
+	public String get(int pos, int length) throws IndexOutOfBoundsException {
+		char[] chars = new char[Math.max(length, 0)];
+		get(pos, length, chars, 0);
+		return new String(chars);
+	}
+
+	/**
+	 * Copies a range of this tree into dest without allocating.
+	 *
+	 * @throws IndexOutOfBoundsException
+	 *             unless both pos and pos+length-1 are legitimate indexes
+	 *             within this tree, and dest has room for length characters
+	 *             at destPos.
+	 */
+	public void get(int pos, int length, char[] dest, int destPos)
+			throws IndexOutOfBoundsException {
+		if (pos < 0 || length < 0 || pos + length > this.size())
+			throw new IndexOutOfBoundsException(
+					(pos < 0 || length < 0) ? "negative position or length"
+							: "range extends past end of string");
+		if (destPos < 0 || destPos + length > dest.length)
+			throw new IndexOutOfBoundsException("destination too small");
+		copy(this.root, pos, pos + length, dest, destPos - pos);
+	}
+
+	/**
+	 * Copies the characters of subtree n at positions [from, to) (relative to
+	 * n) to dest, where position p lands at index p + shift.
+	 */
+	private static void copy(ChunkNode n, int from, int to, char[] dest, int shift) {
+		if (n == null || from >= to)
+			return;
+		int rank = n.rank();
+		if (from < rank)
+			copy(n.left, from, Math.min(to, rank), dest, shift);
+		int start = Math.max(from, rank);
+		int end = Math.min(to, rank + n.length);
+		if (start < end)
+			System.arraycopy(n.chunk, start - rank, dest, start + shift, end - start);
+		int after = rank + n.length;
+		if (to > after)
+			copy(n.right, Math.max(from, after) - after, to - after, dest, shift + after);
+	}
+
+	/**
+	 * @param start
+	 *            position of beginning of string to delete
+	 * @param length
+	 *            length of string to delete
+	 * @return a tree containing the deleted string
+	 * @throws IndexOutOfBoundsException
+	 *             unless both start and start+length-1 are in range for this
+	 *             tree.
+	 */
+	public ChunkedEditTree delete(int start, int length)
+			throws IndexOutOfBoundsException {
+		if (start < 0 || length < 0 || start + length > this.size())
+			throw new IndexOutOfBoundsException(
+					(start < 0) ? "negative first argument to delete"
+							: "delete range extends past end of string");
+		ChunkedEditTree t2 = this.split(start);
+		ChunkedEditTree t3 = t2.split(length);
+		this.concatenate(t3);
+		return t2;
+	}
+
+	/**
+	 * Append the contents of the other tree to this one in
+	 * O(log N + chunkCapacity), refilling short chunks at the seam. Other is
+	 * made empty after this operation.
+	 *
+	 * @param other
+	 * @throws IllegalArgumentException
+	 *             if this == other
+	 */
+	public void concatenate(ChunkedEditTree other) throws IllegalArgumentException {
+		if (this == other)
+			throw new IllegalArgumentException("trees are the same");
+		if (other.root == null)
+			return;
+		if (this.root == null) {
+			this.root = other.root;
+			other.root = null;
+			return;
+		}
+		int seam = this.size();
+		ChunkNode[] first = new ChunkNode[1];
+		ChunkNode rest = removeFirst(other.root, first);
+		this.root = join(this.root, first[0], rest);
+		other.root = null;
+		refill(seam - 1);
+		if (seam < this.size())
+			refill(seam);
+	}
+
+	/**
+	 * O(log N + chunkCapacity). A chunk that straddles pos is cut in two, and
+	 * each part is refilled from its neighbour if it is left short.
+	 *
+	 * @param pos
+	 *            where to split this tree
+	 * @return a new tree containing all of the elements of this tree whose
+	 *         positions are >= pos. Their nodes are removed from this tree.
+	 * @throws IndexOutOfBoundsException
+	 */
+	public ChunkedEditTree split(int pos) throws IndexOutOfBoundsException {
+		if (pos < 0 || pos > this.size())
+			throw new IndexOutOfBoundsException();
+		ChunkNode[] halves = new ChunkNode[2];
+		split(this.root, pos, halves);
+		ChunkedEditTree other = new ChunkedEditTree(this.chunkCapacity);
+		this.root = halves[0];
+		other.root = halves[1];
+		if (this.size() > 0)
+			refill(this.size() - 1);
+		if (other.size() > 0)
+			other.refill(0);
+		return other;
+	}
+
+	/**
+	 * Splits subtree n into the characters before pos (halves[0]) and from
+	 * pos on (halves[1]).
+	 */
+	private void split(ChunkNode n, int pos, ChunkNode[] halves) {
+		if (n == null) {
+			halves[0] = null;
+			halves[1] = null;
+			return;
+		}
+		int rank = n.rank();
+		ChunkNode left = n.left;
+		ChunkNode right = n.right;
+		if (pos <= rank) {
+			split(left, pos, halves);
+			halves[1] = join(halves[1], n, right);
+		} else if (pos >= rank + n.length) {
+			split(right, pos - rank - n.length, halves);
+			halves[0] = join(left, n, halves[0]);
+		} else {
+			ChunkNode tail = n.cut(pos - rank);
+			halves[0] = join(left, n, null);
+			halves[1] = join(null, tail, right);
+		}
+	}
+
+	/**
+	 * Joins two trees with middle between them, touching only the spine of
+	 * the taller one: O(|height(left) - height(right)| + 1).
+	 */
+	private ChunkNode join(ChunkNode left, ChunkNode middle, ChunkNode right) {
+		int leftHeight = ChunkNode.height(left);
+		int rightHeight = ChunkNode.height(right);
+		if (leftHeight > rightHeight + 1) {
+			left.right = join(left.right, middle, right);
+			return rebalance(left);
+		}
+		if (rightHeight > leftHeight + 1) {
+			right.left = join(left, middle, right.left);
+			return rebalance(right);
+		}
+		middle.left = left;
+		middle.right = right;
+		middle.update();
+		return middle;
+	}
+
+	private ChunkNode rebalance(ChunkNode n) {
+		n.update();
+		int balance = n.balance();
+		if (balance > 1) {
+			if (n.left.balance() < 0) {
+				n.left = n.left.rotateLeft();
+				this.rotations++;
+			}
+			this.rotations++;
+			return n.rotateRight();
+		}
+		if (balance < -1) {
+			if (n.right.balance() > 0) {
+				n.right = n.right.rotateRight();
+				this.rotations++;
+			}
+			this.rotations++;
+			return n.rotateLeft();
+		}
+		return n;
+	}
+}
@@ -0,0 +1,81 @@
+package editortrees;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+
+// A position between two characters of an EditTree that can step either way.
+// Placing it is an O(log N) descent; after that each step follows parent
+// pointers, which is amortized O(1), and characters come out unboxed.
+// Any edit to the tree invalidates its cursors until they are placed again
+// with moveTo().
+
+public class Cursor implements PrimitiveIterator.OfInt {
+
+	private final EditTree tree;
+	private Node next; // the node at pos; null at the end of the tree
+	private int pos;
+
+	Cursor(EditTree tree, int pos) {
+		this.tree = tree;
+		moveTo(pos);
+	}
+
+	/**
+	 * Places this cursor before the character at pos. O(log N)
+	 * 
+	 * @param pos
+	 *            from 0 to the size of the tree, inclusive
+	 * @throws IndexOutOfBoundsException
+	 */
+	public void moveTo(int pos) throws IndexOutOfBoundsException {
+		if (pos < 0 || pos > this.tree.size())
+			throw new IndexOutOfBoundsException();
+		this.pos = pos;
+		this.next = (pos == this.tree.size()) ? null : this.tree.getRoot().select(pos);
+	}
+
+	/**
+	 * @return the position of the character that nextInt() would return
+	 */
+	public int position() {
+		return this.pos;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return this.next != null;
+	}
+
+	/**
+	 * @return the character after this cursor, which then moves past it
+	 * @throws NoSuchElementException
+	 *             at the end of the tree
+	 */
+	@Override
+	public int nextInt() {
+		if (this.next == null)
+			throw new NoSuchElementException();
+		char c = this.next.element;
+		this.next = this.next.successor();
+		this.pos++;
+		return c;
+	}
+
+	public boolean hasPrevious() {
+		return this.pos > 0;
+	}
+
+	/**
+	 * @return the character before this cursor, which then moves before it
+	 * @throws NoSuchElementException
+	 *             at the start of the tree
+	 */
+	public int previousInt() {
+		if (this.pos == 0)
+			throw new NoSuchElementException();
+		this.next = (this.next == null) ? this.tree.getRoot().last() : this.next.predecessor();
+		this.pos--;
+		return this.next.element;
+	}
+}
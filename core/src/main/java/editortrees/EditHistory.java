@@ -0,0 +1,238 @@
+package editortrees;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+
+// Undo and redo for an EditTree. Edits go through the history, which logs
+// each one as its inverse: the position, the text it removed and the text it
+// inserted. Memory grows with the size of the edits, not of the document, and
+// consecutive keystrokes share one entry. The logged text is copied, so steps
+// that move a whole range (delete(start, length), split and concatenate) cost
+// O(k + log N) for k characters, not the tree's O(log N).
+
+public class EditHistory {
+
+	public static final int DEFAULT_DEPTH = 1000;
+
+	/**
+	 * One undoable step: at pos, backspaced (reversed) and then removed were
+	 * replaced by inserted.
+	 */
+	private static final class Edit {
+		int pos;
+		final StringBuilder removed;
+		final StringBuilder inserted;
+		final StringBuilder backspaced = new StringBuilder(); // last one first
+
+		Edit(int pos, CharSequence removed, CharSequence inserted) {
+			this.pos = pos;
+			this.removed = new StringBuilder(removed);
+			this.inserted = new StringBuilder(inserted);
+		}
+
+		int removedLength() {
+			return this.backspaced.length() + this.removed.length();
+		}
+
+		/**
+		 * Moves the backspaced characters to the front of removed, once the
+		 * step can grow no more: O(k) for the whole run.
+		 */
+		void settle() {
+			if (this.backspaced.length() == 0)
+				return;
+			this.removed.insert(0, this.backspaced.reverse());
+			this.backspaced.setLength(0);
+		}
+	}
+
+	private final EditTree tree;
+	private final int maxDepth;
+	private final Deque<Edit> undo = new ArrayDeque<>();
+	private final Deque<Edit> redo = new ArrayDeque<>();
+	private boolean coalescing = false; // may the next keystroke join undo.peek()?
+
+	/**
+	 * Tracks edits to tree, keeping the default number of undo steps
+	 *
+	 * @param tree
+	 */
+	public EditHistory(EditTree tree) {
+		this(tree, DEFAULT_DEPTH);
+	}
+
+	/**
+	 * @param tree
+	 *            the tree to edit; edits that bypass this history must not be
+	 *            made while it is in use
+	 * @param maxDepth
+	 *            the most undo steps kept; older ones are forgotten
+	 * @throws IllegalArgumentException
+	 *             if maxDepth is less than 1
+	 */
+	public EditHistory(EditTree tree, int maxDepth) {
+		if (maxDepth < 1)
+			throw new IllegalArgumentException("history must keep at least one step");
+		this.tree = tree;
+		this.maxDepth = maxDepth;
+	}
+
+	public EditTree getTree() {
+		return this.tree;
+	}
+
+	/**
+	 * @return the number of steps undo() can take
+	 */
+	public int undoDepth() {
+		return this.undo.size();
+	}
+
+	/**
+	 * @return the number of steps redo() can take
+	 */
+	public int redoDepth() {
+		return this.redo.size();
+	}
+
+	/**
+	 * Ends the current run of keystrokes, so the next edit starts a new undo
+	 * step. Call this when the cursor moves.
+	 */
+	public void markBoundary() {
+		if (this.coalescing)
+			this.undo.peekLast().settle();
+		this.coalescing = false;
+	}
+
+	/**
+	 * Adds c at pos. Typing at the end of the previous insertion extends its
+	 * undo step instead of starting a new one.
+	 *
+	 * @throws IndexOutOfBoundsException
+	 *             if pos is negative or too large for the tree
+	 */
+	public void add(char c, int pos) throws IndexOutOfBoundsException {
+		this.tree.add(c, pos);
+		Edit last = this.undo.peekLast();
+		if (this.coalescing && last.removedLength() == 0
+				&& pos == last.pos + last.inserted.length()) {
+			last.inserted.append(c);
+			this.redo.clear();
+		} else {
+			record(new Edit(pos, "", String.valueOf(c)));
+			this.coalescing = true;
+		}
+	}
+
+	/**
+	 * Deletes the character at pos. Consecutive deletes at the same position
+	 * (delete key) or just before it (backspace) share an undo step.
+	 *
+	 * @return the character that is deleted
+	 * @throws IndexOutOfBoundsException
+	 */
+	public char delete(int pos) throws IndexOutOfBoundsException {
+		char c = this.tree.delete(pos);
+		Edit last = this.undo.peekLast();
+		if (this.coalescing && last.inserted.length() == 0 && pos == last.pos) {
+			last.removed.append(c);
+			this.redo.clear();
+		} else if (this.coalescing && last.inserted.length() == 0 && pos == last.pos - 1) {
+			last.backspaced.append(c);
+			last.pos = pos;
+			this.redo.clear();
+		} else {
+			record(new Edit(pos, String.valueOf(c), ""));
+			this.coalescing = true;
+		}
+		return c;
+	}
+
+	/**
+	 * Deletes a range as one undo step.
+	 *
+	 * @return a tree containing the deleted string
+	 * @throws IndexOutOfBoundsException
+	 *             unless both start and start+length-1 are in range for the
+	 *             tree.
+	 */
+	public EditTree delete(int start, int length) throws IndexOutOfBoundsException {
+		EditTree removed = this.tree.delete(start, length);
+		record(new Edit(start, removed.toString(), ""));
+		return removed;
+	}
+
+	/**
+	 * Appends the contents of other as one undo step. Other is made empty.
+	 */
+	public void concatenate(EditTree other) {
+		int pos = this.tree.size();
+		String inserted = other.toString();
+		this.tree.concatenate(other);
+		record(new Edit(pos, "", inserted));
+	}
+
+	/**
+	 * Splits the tree as one undo step; undoing it puts the characters back,
+	 * whatever has since been done to the returned tree.
+	 *
+	 * @return a new tree containing the characters at pos and after
+	 */
+	public EditTree split(int pos) throws IndexOutOfBoundsException {
+		EditTree rest = this.tree.split(pos);
+		record(new Edit(pos, rest.toString(), ""));
+		return rest;
+	}
+
+	/**
+	 * Reverts the most recent undo step, O(k + log N) for a step that changed
+	 * k characters.
+	 *
+	 * @return false if there was nothing to undo
+	 */
+	public boolean undo() {
+		Edit e = this.undo.pollLast();
+		if (e == null)
+			return false;
+		e.settle();
+		replace(e.pos, e.inserted.length(), e.removed);
+		this.redo.addLast(e);
+		this.coalescing = false;
+		return true;
+	}
+
+	/**
+	 * Reapplies the most recently undone step.
+	 *
+	 * @return false if there was nothing to redo
+	 */
+	public boolean redo() {
+		Edit e = this.redo.pollLast();
+		if (e == null)
+			return false;
+		replace(e.pos, e.removed.length(), e.inserted);
+		this.undo.addLast(e);
+		this.coalescing = false;
+		return true;
+	}
+
+	private void replace(int pos, int length, CharSequence with) {
+		if (length == 1)
+			this.tree.delete(pos);
+		else if (length > 1)
+			this.tree.delete(pos, length);
+		this.tree.add(with, pos);
+	}
+
+	private void record(Edit e) {
+		if (this.coalescing)
+			this.undo.peekLast().settle();
+		this.undo.addLast(e);
+		if (this.undo.size() > this.maxDepth)
+			this.undo.removeFirst();
+		this.redo.clear();
+		this.coalescing = false;
+	}
+}
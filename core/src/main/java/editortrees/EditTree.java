@@ -0,0 +1,1403 @@
+
+package editortrees;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+
+// A height-balanced binary tree with rank that could be the basis for a text editor.
+
+public class EditTree {
+
+	private static final int WRITE_BUFFER_SIZE = 8192;
+
+	private Node root;
+	private int rotations = 0;
+	private QGramIndex index; // null unless attachIndex() was called
+
+	/**
+	 * Construct an empty tree
+	 */
+	public EditTree() {
+		this.root = new Node();
+	}
+
+	public EditTree(Node parent, char element, Node left, Node right){
+		this.root = new Node(parent, element, left, right);
+	}
+	
+	/**
+	 * Construct a single-node tree whose element is c
+	 * 
+	 * @param c
+	 */
+	public EditTree(char c) {
+		this.root = new Node(null, c);
+	}
+
+	/**
+	 * Create an EditTree whose toString is s. This is done in O(N) time with no
+	 * rotations, where N is the length of the tree (repeatedly calling
+	 * insert() will be N log N).
+	 * 
+	 * @param s
+	 */
+	public EditTree(String s) {
+		this((CharSequence) s);
+	}
+
+	/**
+	 * Create an EditTree whose toString is s, in O(N) time with no rotations.
+	 * 
+	 * @param s
+	 */
+	public EditTree(CharSequence s) {
+		if (s.length() == 0)
+			this.root = new Node();
+		else
+			this.root = build(s, 0, s.length(), null);
+	}
+
+	/**
+	 * Create an EditTree holding the characters of chars, in O(N) time with no
+	 * rotations.
+	 * 
+	 * @param chars
+	 */
+	public EditTree(char[] chars) {
+		this(CharBuffer.wrap(chars));
+	}
+
+	/**
+	 * Create an EditTree holding everything in, which may be of unknown
+	 * length, building as it reads. Each block of characters read becomes a
+	 * perfectly balanced subtree, which is joined onto the right spine of the
+	 * tree so far, so the only memory beyond the nodes is one block. O(N)
+	 * with a few rotations at each join.
+	 * 
+	 * @param in
+	 *            read until end of stream; not closed
+	 * @throws IOException
+	 *             if in does
+	 */
+	public EditTree(Reader in) throws IOException {
+		char[] buffer = new char[WRITE_BUFFER_SIZE];
+		CharBuffer block = CharBuffer.wrap(buffer);
+		Node built = null;
+		int count;
+		while ((count = fill(in, buffer)) > 0) {
+			Node middle = newNode(null, buffer[0]);
+			built = join(built, middle, build(block, 1, count, null));
+		}
+		this.root = (built == null) ? new Node() : built;
+	}
+
+	/**
+	 * Reads from in until buffer is full or the stream ends, so that short
+	 * reads do not make short blocks.
+	 * 
+	 * @return the number of characters read; 0 at end of stream
+	 */
+	private static int fill(Reader in, char[] buffer) throws IOException {
+		int count = 0;
+		while (count < buffer.length) {
+			int read = in.read(buffer, count, buffer.length - count);
+			if (read == -1)
+				break;
+			count += read;
+		}
+		return count;
+	}
+
+	/**
+	 * Builds a perfectly balanced tree from positions lo (inclusive) to hi
+	 * (exclusive) of s by recursive midpoint, so every height and balance
+	 * code is set as the nodes are made.
+	 * 
+	 * @return the root of the new subtree; null if lo == hi
+	 */
+	private Node build(CharSequence s, int lo, int hi, Node parent) {
+		if (lo >= hi)
+			return null;
+		int mid = (lo + hi - 1) >>> 1;
+		Node n = newNode(parent, s.charAt(mid));
+		n.left = build(s, lo, mid, n);
+		n.right = build(s, mid + 1, hi, n);
+		n.setSize();
+		n.setHeight();
+		n.setBalance();
+		return n;
+	}
+
+	/**
+	 * Make this tree be a copy of e, with all new nodes, but the same shape and
+	 * contents. O(N); see PersistentEditTree for O(1) snapshots.
+	 * 
+	 * @param e
+	 */
+	public EditTree(EditTree e) {
+		copyFrom(e);
+	}
+
+	/**
+	 * Replaces the contents of this tree with a copy of e's nodes, made by
+	 * newNode().
+	 */
+	void copyFrom(EditTree e) {
+		if (e.size() == 0)
+			this.root = new Node();
+		else
+			this.root = copy(e.root, null);
+	}
+
+	/**
+	 * @return a new subtree with the same shape, contents and balance codes as n
+	 */
+	private Node copy(Node n, Node parent) {
+		if (n == null)
+			return null;
+		Node c = newNode(parent, n.element);
+		c.left = copy(n.left, c);
+		c.right = copy(n.right, c);
+		c.setSize();
+		c.height = n.height;
+		c.balance = n.balance;
+		return c;
+	}
+
+	/**
+	 * Makes every node of this tree, so that a subclass can keep more in
+	 * them. The constructors that take contents call it, so a subclass must
+	 * start from EditTree() and add its contents afterwards.
+	 */
+	Node newNode(Node parent, char c) {
+		return new Node(parent, c);
+	}
+
+	/**
+	 * @return an empty tree of the same kind as this one, for split()
+	 */
+	EditTree newTree() {
+		return new EditTree();
+	}
+
+	/**
+	 * Trees can only be joined if their nodes keep the same summary.
+	 * 
+	 * @return what the nodes of this tree summarize; null for plain nodes
+	 */
+	Summarizer<?> summarizer() {
+		return null;
+	}
+
+	/**
+	 * Heights are stored in the nodes, so this is O(1)
+	 * 
+	 * @return the height of this tree
+	 */
+	public int height() {
+		if (this.size() == 0) {
+			return -1;
+		} else
+			return this.root.height();
+	}
+
+	/**
+	 * 
+	 * @return the number of nodes in this tree
+	 */
+	public int size() {
+		return this.root.size;
+	}
+
+	/**
+	 * return the string produced by an inorder traversal of this tree, in O(N)
+	 */
+	public String toString() {
+		return this.root.inOrderString();
+	}
+
+	/**
+	 * Streams the contents of this tree to out in inorder, a buffer at a
+	 * time, without building the whole document as one String.
+	 * 
+	 * @param out
+	 *            where to write the characters
+	 * @throws IOException
+	 *             if out does
+	 */
+	public void writeTo(Writer out) throws IOException {
+		char[] buffer = new char[WRITE_BUFFER_SIZE];
+		Node currentNode = this.root.first();
+		for (int written = 0; written < this.size(); written += buffer.length) {
+			int count = Math.min(buffer.length, this.size() - written);
+			currentNode = fill(currentNode, buffer, count);
+			out.write(buffer, 0, count);
+		}
+	}
+
+	/**
+	 * Streams the contents of this tree to out in inorder, a buffer at a
+	 * time, without building the whole document as one String.
+	 * 
+	 * @param out
+	 *            where to append the characters
+	 * @throws IOException
+	 *             if out does
+	 */
+	public void writeTo(Appendable out) throws IOException {
+		if (out instanceof Writer) {
+			writeTo((Writer) out);
+			return;
+		}
+		char[] buffer = new char[WRITE_BUFFER_SIZE];
+		CharBuffer wrapped = CharBuffer.wrap(buffer);
+		Node currentNode = this.root.first();
+		for (int written = 0; written < this.size(); written += buffer.length) {
+			int count = Math.min(buffer.length, this.size() - written);
+			currentNode = fill(currentNode, buffer, count);
+			out.append(wrapped, 0, count);
+		}
+	}
+
+	/**
+	 * Encodes the contents of this tree with charset and writes the bytes to
+	 * out, a buffer at a time.
+	 * 
+	 * @param out
+	 *            where to write the bytes
+	 * @param charset
+	 *            how to encode the characters
+	 * @throws IOException
+	 *             if out does, or if some character cannot be encoded
+	 */
+	public void writeTo(WritableByteChannel out, Charset charset)
+			throws IOException {
+		CharsetEncoder encoder = charset.newEncoder();
+		CharBuffer chars = CharBuffer.allocate(WRITE_BUFFER_SIZE);
+		ByteBuffer bytes = ByteBuffer.allocate(WRITE_BUFFER_SIZE
+				* (int) Math.ceil(encoder.maxBytesPerChar()));
+		Node currentNode = this.root.first();
+		int remaining = this.size();
+		boolean endOfInput = false;
+		while (!endOfInput) {
+			while (chars.hasRemaining() && remaining > 0) {
+				chars.put(currentNode.element);
+				currentNode = currentNode.successor();
+				remaining--;
+			}
+			endOfInput = remaining == 0;
+			chars.flip();
+			CoderResult result = encoder.encode(chars, bytes, endOfInput);
+			if (result.isError())
+				result.throwException();
+			// keeps a trailing half of a surrogate pair for the next round
+			chars.compact();
+			if (endOfInput)
+				encoder.flush(bytes);
+			bytes.flip();
+			while (bytes.hasRemaining())
+				out.write(bytes);
+			bytes.clear();
+		}
+	}
+
+	/**
+	 * Copies count characters starting at currentNode into buffer.
+	 * 
+	 * @return the node after the last one copied
+	 */
+	private static Node fill(Node currentNode, char[] buffer, int count) {
+		for (int i = 0; i < count; i++) {
+			buffer[i] = currentNode.element;
+			currentNode = currentNode.successor();
+		}
+		return currentNode;
+	}
+
+	/**
+	 * 
+	 * @param c
+	 *            character to add to the end of this tree.
+	 */
+	public void add(char c) {
+		add(c, this.size());
+	}
+
+	/**
+	 * Descends by rank to the insertion point and then rebalances along the
+	 * parent pointers, so the only allocation is the new Node.
+	 * 
+	 * @param c
+	 *            character to add
+	 * @param pos
+	 *            character added in this inorder position
+	 * @throws IndexOutOfBoundsException
+	 *             id pos is negative or too large for this tree
+	 */
+	public void add(char c, int pos) throws IndexOutOfBoundsException {
+
+		if (pos > this.size() || pos < 0) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (this.index != null)
+			this.index.unindex(this, pos, pos);
+		insert(c, pos);
+		if (this.index != null)
+			this.index.index(this, pos, pos + 1);
+	}
+
+	private void insert(char c, int pos) {
+		if (this.size() == 0) {
+			this.root = newNode(null, c);
+			return;
+		}
+		Node n = this.root;
+		while (true) {
+			if (pos <= n.rank()) {
+				if (n.left == null) {
+					n.left = newNode(n, c);
+					break;
+				}
+				n = n.left;
+			} else {
+				pos -= n.rank() + 1;
+				if (n.right == null) {
+					n.right = newNode(n, c);
+					break;
+				}
+				n = n.right;
+			}
+		}
+		rebalanceFrom(n);
+	}
+
+	/**
+	 * @param s
+	 *            characters to add to the end of this tree
+	 */
+	public void add(CharSequence s) {
+		add(s, this.size());
+	}
+
+	/**
+	 * Builds a balanced subtree from s in O(k) and joins it in at pos, which
+	 * rebalances only along the path to pos: O(k + log N) in all, against
+	 * O(k log N) for k calls to add(char, int).
+	 * 
+	 * @param s
+	 *            characters to add
+	 * @param pos
+	 *            inorder position of the first of them
+	 * @throws IndexOutOfBoundsException
+	 *             if pos is negative or too large for this tree
+	 */
+	public void add(CharSequence s, int pos) throws IndexOutOfBoundsException {
+		if (pos > this.size() || pos < 0)
+			throw new IndexOutOfBoundsException();
+		if (s.length() == 0)
+			return;
+		if (this.index != null)
+			this.index.unindex(this, pos, pos);
+		Node inserted = build(s, 0, s.length(), null);
+		if (this.size() == 0)
+			this.root = inserted;
+		else
+			this.root = insertTree(this.root, pos, inserted);
+		if (this.index != null)
+			this.index.index(this, pos, pos + s.length());
+	}
+
+	/**
+	 * Inserts the tree inserted into subtree n at pos, which is relative to
+	 * n, by cutting n along the path to pos and joining the pieces back
+	 * together around it.
+	 * 
+	 * @return the root of the combined subtree, with no parent
+	 */
+	private Node insertTree(Node n, int pos, Node inserted) {
+		if (n == null)
+			return inserted;
+		Node left = detach(n.left);
+		Node right = detach(n.right);
+		int rank = n.rank();
+		if (pos <= rank)
+			return join(insertTree(left, pos, inserted), n, right);
+		return join(left, n, insertTree(right, pos - rank - 1, inserted));
+	}
+
+	/**
+	 * Joins two trees with middle between them, touching only the spine of
+	 * the taller one: O(|height(left) - height(right)| + 1). The children of
+	 * middle are replaced.
+	 * 
+	 * @return the root of the joined tree, with no parent
+	 */
+	private Node join(Node left, Node middle, Node right) {
+		int leftHeight = (left == null) ? -1 : left.height();
+		int rightHeight = (right == null) ? -1 : right.height();
+		if (leftHeight > rightHeight + 1) {
+			left.right = join(detach(left.right), middle, right);
+			left.right.parent = left;
+			return rebalance(left);
+		}
+		if (rightHeight > leftHeight + 1) {
+			right.left = join(left, middle, detach(right.left));
+			right.left.parent = right;
+			return rebalance(right);
+		}
+		middle.parent = null;
+		middle.left = left;
+		middle.right = right;
+		if (left != null)
+			left.parent = middle;
+		if (right != null)
+			right.parent = middle;
+		middle.setSize();
+		middle.setHeight();
+		middle.setBalance();
+		return middle;
+	}
+
+	/**
+	 * Makes n the root of a tree of its own. Its old parent keeps its child
+	 * link until that is overwritten.
+	 */
+	private static Node detach(Node n) {
+		if (n != null)
+			n.parent = null;
+		return n;
+	}
+
+	/**
+	 * Walks from n up to the root, resetting size, height and balance of each
+	 * node and rotating wherever the heights of two children differ by 2.
+	 * Sizes change all the way up, so the walk always reaches the root:
+	 * O(log n) with no allocation.
+	 * 
+	 * @param n
+	 *            the lowest node whose subtree changed
+	 */
+	private void rebalanceFrom(Node n) {
+		while (n != null) {
+			n = rebalance(n);
+			if (n.parent == null)
+				this.root = n;
+			n = n.parent;
+		}
+	}
+
+	/**
+	 * Resets size, height and balance of n and rotates it if the heights of
+	 * its children differ by 2. O(1)
+	 * 
+	 * @return the node now in n's place
+	 */
+	private Node rebalance(Node n) {
+		n.setSize();
+		n.setHeight();
+		n.setBalance();
+		int leftHeight = (n.left == null) ? -1 : n.left.height();
+		int rightHeight = (n.right == null) ? -1 : n.right.height();
+		if (leftHeight - rightHeight > 1) {
+			if (n.left.balance == Node.Code.RIGHT)
+				return doubleRightRotate(n);
+			return RightRotate(n);
+		}
+		if (rightHeight - leftHeight > 1) {
+			if (n.right.balance == Node.Code.LEFT)
+				return doubleLeftRotate(n);
+			return LeftRotate(n);
+		}
+		return n;
+	}
+
+	/**
+	 * Rotates the tree to the right
+	 * 
+	 * @param n
+	 *            - the node to rotate around
+	 * @return the new rotated tree
+	 */
+	private Node RightRotate(Node n) {
+		this.rotations += 1;
+		return n.rotateRight();
+	}
+
+	/**
+	 * Rotates the tree to the left
+	 * 
+	 * @param n
+	 *            - the node to rotate around
+	 * @return the new rotated tree
+	 */
+
+	private Node LeftRotate(Node n) {
+		this.rotations += 1;
+		return n.rotateLeft();
+	}
+
+	/**
+	 * Performs a Left-Right rotation
+	 * 
+	 * @param n
+	 *            - the node to rotate around
+	 * @return the new rotated tree
+	 */
+
+	private Node doubleRightRotate(Node n) {
+		this.rotations += 2;
+		n.left.rotateLeft();
+		return n.rotateRight();
+	}
+
+	/**
+	 * Performs a Right-Left rotation
+	 * 
+	 * @param n
+	 *            - the node to rotate around
+	 * @return the new rotated tree
+	 */
+
+	private Node doubleLeftRotate(Node n) {
+		this.rotations += 2;
+		n.right.rotateRight();
+		return n.rotateLeft();
+	}
+
+	/**
+	 * A node with two children is replaced by its inorder predecessor, which
+	 * is moved rather than copied; then the tree is rebalanced along the
+	 * parent pointers from the lowest node that lost a descendant.
+	 * 
+	 * @param pos
+	 *            position of character to delete from this tree
+	 * @return the character that is deleted
+	 * @throws IndexOutOfBoundsException
+	 */
+	public char delete(int pos) throws IndexOutOfBoundsException {
+		if (pos >= this.size() || pos < 0)
+			throw new IndexOutOfBoundsException("Number is too large.");
+		if (this.index != null)
+			this.index.unindex(this, pos, pos + 1);
+
+		Node deleteNode = this.root.select(pos);
+		Node lowestChanged;
+		if (deleteNode.left != null && deleteNode.right != null) {
+			Node predecessor = deleteNode.left;
+			while (predecessor.right != null)
+				predecessor = predecessor.right;
+			if (predecessor.parent == deleteNode) {
+				lowestChanged = predecessor;
+			} else {
+				// lift the predecessor out, leaving its left subtree behind
+				lowestChanged = predecessor.parent;
+				lowestChanged.right = predecessor.left;
+				if (predecessor.left != null)
+					predecessor.left.parent = lowestChanged;
+				predecessor.left = deleteNode.left;
+				predecessor.left.parent = predecessor;
+			}
+			predecessor.right = deleteNode.right;
+			predecessor.right.parent = predecessor;
+			replaceChild(deleteNode, predecessor);
+		} else {
+			lowestChanged = deleteNode.parent;
+			replaceChild(deleteNode, (deleteNode.left != null) ? deleteNode.left
+					: deleteNode.right);
+		}
+
+		if (this.root == null)
+			this.root = new Node();
+		else
+			rebalanceFrom(lowestChanged);
+		if (this.index != null)
+			this.index.index(this, pos, pos);
+		return deleteNode.element;
+	}
+
+	/**
+	 * Puts replacement where n was in the tree (or makes it the root).
+	 */
+	private void replaceChild(Node n, Node replacement) {
+		if (replacement != null)
+			replacement.parent = n.parent;
+		if (n.parent == null)
+			this.root = replacement;
+		else if (n.parent.left == n)
+			n.parent.left = replacement;
+		else
+			n.parent.right = replacement;
+	}
+
+	/**
+	 * 
+	 * @param pos
+	 *            position in the tree
+	 * @return the character at that position
+	 * @throws IndexOutOfBoundsException
+	 */
+	public char get(int pos) throws IndexOutOfBoundsException {
+		if (pos >= this.size() || pos < 0 || this.size() < 0)
+			throw new IndexOutOfBoundsException();
+		Node currentNode = this.root.select(pos);
+		if (currentNode == null)
+			return '\0';
+
+		return currentNode.element;
+	}
+
+	/**
+	 * This method operates in O(length + log N), where N is the size of this
+	 * tree: pos is located once and the rest is an inorder walk.
+	 * 
+	 * @param pos
+	 *            location of the beginning of the string to retrieve
+	 * @param length
+	 *            length of the string to retrieve
+	 * @return string of length that starts in position pos
+	 * @throws IndexOutOfBoundsException
+	 *             unless both pos and pos+length-1 are legitimate indexes
+	 *             within this tree.
+	 */
+
+	public String get(int pos, int length) throws IndexOutOfBoundsException {
+		char[] chars = new char[Math.max(length, 0)];
+		get(pos, length, chars, 0);
+		return new String(chars);
+	}
+
+	/**
+	 * Copies a range of this tree into dest without allocating, in
+	 * O(length + log N).
+	 * 
+	 * @param pos
+	 *            location of the beginning of the range to copy
+	 * @param length
+	 *            number of characters to copy
+	 * @param dest
+	 *            array to copy into
+	 * @param destPos
+	 *            index in dest of the first copied character
+	 * @throws IndexOutOfBoundsException
+	 *             unless both pos and pos+length-1 are legitimate indexes
+	 *             within this tree, and dest has room for length characters
+	 *             at destPos.
+	 */
+	public void get(int pos, int length, char[] dest, int destPos)
+			throws IndexOutOfBoundsException {
+		checkRange(pos, length);
+		if (destPos < 0 || destPos + length > dest.length)
+			throw new IndexOutOfBoundsException("destination too small");
+		Node currentNode = this.root.select(pos);
+		for (int i = destPos; i < destPos + length; i++) {
+			dest[i] = currentNode.element;
+			currentNode = currentNode.successor();
+		}
+	}
+
+	/**
+	 * Puts a range of this tree into dest at its current position without
+	 * allocating, in O(length + log N).
+	 * 
+	 * @param pos
+	 *            location of the beginning of the range to copy
+	 * @param length
+	 *            number of characters to copy
+	 * @param dest
+	 *            buffer to put the characters into
+	 * @throws IndexOutOfBoundsException
+	 *             unless both pos and pos+length-1 are legitimate indexes
+	 *             within this tree.
+	 * @throws BufferOverflowException
+	 *             if dest has fewer than length characters remaining
+	 */
+	public void get(int pos, int length, CharBuffer dest)
+			throws IndexOutOfBoundsException {
+		checkRange(pos, length);
+		if (dest.remaining() < length)
+			throw new BufferOverflowException();
+		Node currentNode = this.root.select(pos);
+		for (int i = 0; i < length; i++) {
+			dest.put(currentNode.element);
+			currentNode = currentNode.successor();
+		}
+	}
+
+	private void checkRange(int pos, int length) {
+		if (pos < 0 || length < 0 || pos + length > this.size())
+			throw new IndexOutOfBoundsException(
+					(pos < 0 || length < 0) ? "negative position or length"
+							: "range extends past end of string");
+	}
+
+	/**
+	 * This method is provided for you, and should not need to be changed. If
+	 * split() and concatenate() are O(log N) operations as required, delete
+	 * should also be O(log N)
+	 * 
+	 * @param start
+	 *            position of beginning of string to delete
+	 * 
+	 * @param length
+	 *            length of string to delete
+	 * @return an EditTree containing the deleted string
+	 * @throws IndexOutOfBoundsException
+	 *             unless both start and start+length-1 are in range for this
+	 *             tree.
+	 */
+	public EditTree delete(int start, int length)
+			throws IndexOutOfBoundsException {
+		if (start < 0 || length < 0 || start + length > this.size())
+			throw new IndexOutOfBoundsException(
+					(start < 0) ? "negative first argument to delete"
+							: "delete range extends past end of string");
+		EditTree t2 = this.splitSharingIndex(start);
+		EditTree t3 = t2.splitSharingIndex(length);
+		this.concatenate(t3);
+		t2.releaseIndex();
+		return t2;
+	}
+
+	/**
+	 * Applies a batch of edits, whose positions all refer to the tree as it
+	 * is before the batch. A small batch is applied in one recursive pass
+	 * that hands each subtree the edits inside it and joins the edited
+	 * subtrees back together, so each node on the paths to the edits is
+	 * visited once: O(E log(N/E) + k) for E edits of k characters in all,
+	 * against O(k log N) edit by edit. A batch with so many edits that this
+	 * would cost more than N rebuilds the tree in a single O(N) pass instead.
+	 *
+	 * @param edits
+	 *            sorted by position, and not overlapping
+	 * @throws IllegalArgumentException
+	 *             if the edits are out of order or overlap
+	 * @throws IndexOutOfBoundsException
+	 *             if an edit extends past the end of this tree
+	 */
+	public void applyBatch(List<TextEdit> edits) {
+		int end = 0;
+		for (TextEdit e : edits) {
+			if (e.pos < end)
+				throw new IllegalArgumentException("edits out of order or overlapping: " + e);
+			end = e.pos + e.length;
+		}
+		if (end > this.size())
+			throw new IndexOutOfBoundsException("edit extends past end of string");
+		if (edits.isEmpty())
+			return;
+		// each edit costs a descent and a join on the way back up
+		if ((long) edits.size() * (this.height() + 2) > this.size()) {
+			if (this.index != null)
+				this.index.unindex(this, 0, this.size());
+			rebuild(edits);
+			if (this.index != null)
+				this.index.index(this, 0, this.size());
+			return;
+		}
+		updateIndex(edits, false);
+		int[] starts = new int[edits.size()];
+		int[] ends = new int[edits.size()];
+		String[] texts = new String[edits.size()];
+		for (int i = 0; i < edits.size(); i++) {
+			TextEdit e = edits.get(i);
+			starts[i] = e.pos;
+			ends[i] = e.pos + e.length;
+			texts[i] = e.text;
+		}
+		this.root = applyBatch(rootOrNull(), 0, starts, ends, texts, 0, edits.size());
+		if (this.root == null)
+			this.root = new Node();
+		updateIndex(edits, true);
+	}
+
+	/**
+	 * Applies edits lo (inclusive) to hi (exclusive), whose positions are
+	 * relative to the tree, to subtree n, which starts at offset. An edit
+	 * that spans a node is cut in two in place, so the arrays are scratch.
+	 * 
+	 * @return the root of the edited subtree, with no parent
+	 */
+	private Node applyBatch(Node n, int offset, int[] starts, int[] ends, String[] texts,
+			int lo, int hi) {
+		if (lo == hi)
+			return n;
+		if (n == null) {
+			// all of them insert here
+			if (hi - lo == 1)
+				return build(texts[lo], 0, texts[lo].length(), null);
+			StringBuilder text = new StringBuilder();
+			for (int i = lo; i < hi; i++)
+				text.append(texts[i]);
+			return build(text, 0, text.length(), null);
+		}
+		Node left = detach(n.left);
+		Node right = detach(n.right);
+		int nodePos = offset + n.rank();
+		int spanning = lo; // first edit that does not lie wholly before n
+		while (spanning < hi && ends[spanning] <= nodePos)
+			spanning++;
+		boolean deleted = spanning < hi && starts[spanning] <= nodePos;
+		if (deleted) {
+			// the edit deletes n; its text goes before n, and the rest of its
+			// range after
+			int end = ends[spanning];
+			ends[spanning] = nodePos;
+			left = applyBatch(left, offset, starts, ends, texts, lo, spanning + 1);
+			starts[spanning] = nodePos + 1;
+			ends[spanning] = end;
+			texts[spanning] = "";
+			right = applyBatch(right, nodePos + 1, starts, ends, texts, spanning, hi);
+		} else {
+			left = applyBatch(left, offset, starts, ends, texts, lo, spanning);
+			right = applyBatch(right, nodePos + 1, starts, ends, texts, spanning, hi);
+		}
+		if (!deleted)
+			return join(left, n, right);
+		if (left == null || right == null)
+			return (left == null) ? right : left;
+		EditTree rest = newTree();
+		rest.root = right;
+		Node middle = rest.removeFirst();
+		return join(left, middle, rest.rootOrNull());
+	}
+
+	/**
+	 * Removes the grams around each edit of a batch from the index before it
+	 * is applied, or adds them back after. Windows closer together than q
+	 * are merged so that no gram is added twice.
+	 */
+	private void updateIndex(List<TextEdit> edits, boolean after) {
+		if (this.index == null)
+			return;
+		int q = this.index.q;
+		int delta = 0; // how far the batch has moved positions so far
+		int first = 0; // gram starts [first, last) are waiting to be updated
+		int last = Integer.MIN_VALUE;
+		for (TextEdit e : edits) {
+			int pos = after ? e.pos + delta : e.pos;
+			int length = after ? e.text.length() : e.length;
+			delta += e.text.length() - e.length;
+			if (pos - q + 1 > last) {
+				updateIndex(first, last, after);
+				first = pos - q + 1;
+			}
+			last = pos + length;
+		}
+		updateIndex(first, last, after);
+	}
+
+	private void updateIndex(int first, int last, boolean after) {
+		if (last == Integer.MIN_VALUE)
+			return;
+		if (after)
+			this.index.index(this, first + this.index.q - 1, last);
+		else
+			this.index.unindex(this, first + this.index.q - 1, last);
+	}
+
+	/**
+	 * Replaces this tree with a perfectly balanced one holding its contents
+	 * with edits applied.
+	 */
+	private void rebuild(List<TextEdit> edits) {
+		StringBuilder chars = new StringBuilder(this.size());
+		Node currentNode = this.root.first();
+		int pos = 0;
+		for (TextEdit e : edits) {
+			for (; pos < e.pos; pos++) {
+				chars.append(currentNode.element);
+				currentNode = currentNode.successor();
+			}
+			for (; pos < e.pos + e.length; pos++)
+				currentNode = currentNode.successor();
+			chars.append(e.text);
+		}
+		for (; pos < this.size(); pos++) {
+			chars.append(currentNode.element);
+			currentNode = currentNode.successor();
+		}
+		if (chars.length() == 0)
+			this.root = new Node();
+		else
+			this.root = build(chars, 0, chars.length(), null);
+	}
+
+	/**
+	 * Append (in time proportional to the log of the size of the larger tree)
+	 * the contents of the other tree to this one. Other is made empty after
+	 * this operation.
+	 * 
+	 * The first node of other is unlinked and used to join the two trees,
+	 * which touches only the spine of the taller tree down to the height of
+	 * the shorter: O(|height(this) - height(other)| + log(other.size())).
+	 * 
+	 * The result keeps this tree's q-gram index, which takes in other's
+	 * characters in time proportional to their number, and other's index is
+	 * detached. If this tree has no index it adopts other's instead, which
+	 * takes in this tree's characters, so concatenating onto an empty tree
+	 * keeps the index.
+	 * 
+	 * @param other
+	 * @throws IllegalArgumentException
+	 *             if this == other
+	 */
+	public void concatenate(EditTree other) throws IllegalArgumentException {
+		if (this == other)
+			throw new IllegalArgumentException("trees are the same");
+		if (this.summarizer() != other.summarizer())
+			throw new IllegalArgumentException("trees keep different summaries");
+		if (other.size() == 0)
+			return;
+		int seam = this.size();
+		int start = seam; // the grams to add start in [start, end)
+		int end = (other.index == this.index) ? seam : seam + other.size();
+		if (this.index == null && other.index != null) {
+			this.index = other.index;
+			start = 0;
+			end = seam;
+		}
+		other.index = null;
+		if (this.size() == 0) {
+			this.root = other.root;
+		} else {
+			Node middle = other.removeFirst();
+			this.root = join(detach(this.root), middle, other.rootOrNull());
+			this.root.parent = null;
+		}
+		other.root = new Node();
+		if (this.index != null)
+			this.index.index(this, start, end);
+	}
+
+	/**
+	 * Joins left, then middle, then right into one balanced tree in time
+	 * proportional to the difference of their heights. The nodes of left and
+	 * right are moved into the result, and both are made empty.
+	 * 
+	 * The result keeps left's q-gram index, or right's if left has none, and
+	 * the other index is detached; the characters it did not cover are added
+	 * to it in time proportional to their number.
+	 * 
+	 * @param left
+	 * @param middle
+	 *            the character that goes between them
+	 * @param right
+	 * @return a new tree holding all of their characters in order
+	 * @throws IllegalArgumentException
+	 *             if left == right
+	 */
+	public static EditTree join(EditTree left, char middle, EditTree right)
+			throws IllegalArgumentException {
+		if (left == right)
+			throw new IllegalArgumentException("trees are the same");
+		if (left.summarizer() != right.summarizer())
+			throw new IllegalArgumentException("trees keep different summaries");
+		EditTree joined = left.newTree();
+		int seam = left.size();
+		int start = seam; // the grams to add start in [start, end)
+		int end = (right.index == left.index) ? seam + 1 : seam + 1 + right.size();
+		joined.index = left.index;
+		if (left.index == null && right.index != null) {
+			joined.index = right.index;
+			start = 0;
+			end = seam + 1;
+		}
+		left.index = null;
+		right.index = null;
+		joined.root = joined.join(detach(left.rootOrNull()), joined.newNode(null, middle),
+				detach(right.rootOrNull()));
+		left.root = new Node();
+		right.root = new Node();
+		if (joined.index != null)
+			joined.index.index(joined, start, end);
+		return joined;
+	}
+
+	/**
+	 * @return the root, or null if this tree is empty
+	 */
+	private Node rootOrNull() {
+		if (this.size() == 0)
+			return null;
+		return this.root;
+	}
+
+	/**
+	 * Unlinks the first node of this tree, which must not be empty, and
+	 * rebalances along the left spine. O(log N) with no descent by rank.
+	 * 
+	 * @return the node that was first, detached
+	 */
+	private Node removeFirst() {
+		Node first = this.root.first();
+		Node parent = first.parent;
+		replaceChild(first, first.right);
+		if (this.root == null)
+			this.root = new Node();
+		else if (parent != null)
+			rebalanceFrom(parent);
+		first.parent = null;
+		first.right = null;
+		return first;
+	}
+
+	/**
+	 * This operation must be done in time proportional to the height of this
+	 * tree. The tree is cut along the path to pos and each side is joined
+	 * back together on the way up; the joins' costs telescope to O(log N).
+	 * If this tree has an index, the characters split off are removed from
+	 * it, which takes time proportional to their number; the new tree has no
+	 * index.
+	 * 
+	 * @param pos
+	 *            where to split this tree
+	 * @return a new tree containing all of the elements of this tree whose
+	 *         positions are >= position. Their nodes are removed from this
+	 *         tree, which keeps those before pos.
+	 * @throws IndexOutOfBoundsException
+	 */
+	public EditTree split(int pos) throws IndexOutOfBoundsException {
+		EditTree other = splitSharingIndex(pos);
+		other.releaseIndex();
+		return other;
+	}
+
+	/**
+	 * Splits in O(log N) even when this tree has an index, by leaving the
+	 * entries of the new tree in it and giving the new tree the same index.
+	 * For edits that concatenate the new tree back, or release its index.
+	 */
+	private EditTree splitSharingIndex(int pos) throws IndexOutOfBoundsException {
+		if (pos < 0 || pos > this.size())
+			throw new IndexOutOfBoundsException();
+		if (this.index != null)
+			this.index.unindex(this, pos, pos);
+		Node[] halves = new Node[2];
+		split(detach(this.rootOrNull()), pos, halves);
+		EditTree other = newTree();
+		this.root = (halves[0] == null) ? new Node() : halves[0];
+		other.root = (halves[1] == null) ? new Node() : halves[1];
+		other.index = this.index;
+		return other;
+	}
+
+	/**
+	 * Splits subtree n into the nodes before pos (halves[0]) and from pos on
+	 * (halves[1]), each with no parent.
+	 */
+	private void split(Node n, int pos, Node[] halves) {
+		if (n == null) {
+			halves[0] = null;
+			halves[1] = null;
+			return;
+		}
+		Node left = detach(n.left);
+		Node right = detach(n.right);
+		int rank = n.rank();
+		if (pos <= rank) {
+			split(left, pos, halves);
+			halves[1] = join(halves[1], n, right);
+		} else {
+			split(right, pos - rank - 1, halves);
+			halves[0] = join(left, n, halves[0]);
+		}
+	}
+
+	/**
+	 * O(1). The view reads the tree directly, so it is only good until the
+	 * tree is next edited.
+	 * 
+	 * @return this tree as a CharSequence, without copying it
+	 */
+	public CharSequence asCharSequence() {
+		return new EditTreeCharSequence(this, 0, this.size());
+	}
+
+	/**
+	 * Splits at subtree boundaries with exact sizes, so parallel streams
+	 * divide the work evenly. The tree must not be edited while it is in use.
+	 * 
+	 * @return a Spliterator over the characters of this tree, in order
+	 */
+	public Spliterator.OfInt spliterator() {
+		return new EditTreeSpliterator(this, 0, this.size());
+	}
+
+	/**
+	 * @return a sequential stream of the characters of this tree; call
+	 *         parallel() on it to spread the work across cores
+	 */
+	public IntStream chars() {
+		return StreamSupport.intStream(spliterator(), false);
+	}
+
+	/**
+	 * @return a cursor before the first character of this tree
+	 */
+	public Cursor cursor() {
+		return new Cursor(this, 0);
+	}
+
+	/**
+	 * O(log N) to place; then amortized O(1) per character in either
+	 * direction.
+	 * 
+	 * @param pos
+	 *            from 0 to size(), inclusive
+	 * @return a cursor before the character at pos
+	 * @throws IndexOutOfBoundsException
+	 */
+	public Cursor cursor(int pos) throws IndexOutOfBoundsException {
+		return new Cursor(this, pos);
+	}
+
+	/**
+	 * Lines are separated by '\n', so an empty tree has one line and a
+	 * trailing newline starts an empty last line. O(1)
+	 * 
+	 * @return the number of lines in this tree
+	 */
+	public int lineCount() {
+		return this.root.newlines + 1;
+	}
+
+	/**
+	 * Descends by the newline counts of the subtrees. O(log N)
+	 * 
+	 * @param line
+	 *            a line number, from 0
+	 * @return the position of the first character of that line
+	 * @throws IndexOutOfBoundsException
+	 *             unless 0 <= line < lineCount()
+	 */
+	public int lineToOffset(int line) throws IndexOutOfBoundsException {
+		if (line < 0 || line >= this.lineCount())
+			throw new IndexOutOfBoundsException("no line " + line);
+		int newlines = line; // to pass over, counting the one that ends line - 1
+		int offset = 0;
+		Node currentNode = this.root;
+		while (newlines > 0) {
+			int leftNewlines = (currentNode.left == null) ? 0 : currentNode.left.newlines;
+			if (newlines <= leftNewlines) {
+				currentNode = currentNode.left;
+				continue;
+			}
+			newlines -= leftNewlines;
+			offset += currentNode.rank() + 1;
+			if (currentNode.element == '\n' && --newlines == 0)
+				break;
+			currentNode = currentNode.right;
+		}
+		return offset;
+	}
+
+	/**
+	 * Counts the newlines before pos on the way down. O(log N)
+	 * 
+	 * @param pos
+	 *            a position in this tree, or its size
+	 * @return the number of the line that pos is on, from 0
+	 * @throws IndexOutOfBoundsException
+	 *             unless 0 <= pos <= size()
+	 */
+	public int offsetToLine(int pos) throws IndexOutOfBoundsException {
+		if (pos < 0 || pos > this.size())
+			throw new IndexOutOfBoundsException();
+		int line = 0;
+		Node currentNode = this.root;
+		while (currentNode != null && pos > 0) {
+			int rank = currentNode.rank();
+			if (pos <= rank) {
+				currentNode = currentNode.left;
+			} else {
+				if (currentNode.left != null)
+					line += currentNode.left.newlines;
+				if (currentNode.element == '\n')
+					line++;
+				pos -= rank + 1;
+				currentNode = currentNode.right;
+			}
+		}
+		return line;
+	}
+
+	/**
+	 * Runs in O(N + length of s) without copying the tree; see KmpMatcher.
+	 * 
+	 * @param s
+	 *            the string to look for
+	 * @return the position in this tree of the first occurrence of s; -1 if s
+	 *         does not occur
+	 */
+	public int find(String s) {
+		return find(s, 0);
+	}
+
+	/**
+	 * Starts scanning at pos, so the characters before it are never visited.
+	 * 
+	 * @param s
+	 *            the string to search for
+	 * @param pos
+	 *            the position in the tree to begin the search
+	 * @return the position in this tree of the first occurrence of s that does
+	 *         not occur before position pos; -1 if s does not occur
+	 */
+	public int find(String s, int pos) {
+		if (pos < 0)
+			pos = 0;
+		if (s.length() == 0)
+			return (pos <= this.size()) ? pos : -1;
+		if (pos + s.length() > this.size())
+			return -1;
+		if (this.index != null && s.length() >= this.index.q)
+			return this.index.find(this, s, pos);
+		return new KmpMatcher(s).find(this.root.select(pos), pos, this.size());
+	}
+
+	/**
+	 * Builds a q-gram index of this tree in O(N), after which find() of a
+	 * string of at least q characters costs in proportion to the occurrences
+	 * of its rarest q-gram rather than to N. Edits keep the index up to date
+	 * at O(q) extra entries each. The index belongs to this tree alone: a
+	 * tree split off from it starts without one.
+	 * 
+	 * @param q
+	 *            the length of the grams, from 1 to 4
+	 * @throws IllegalArgumentException
+	 *             if q is out of range
+	 */
+	public void attachIndex(int q) throws IllegalArgumentException {
+		detachIndex();
+		this.index = new QGramIndex(q);
+		this.index.index(this, 0, this.size());
+	}
+
+	/**
+	 * Drops the index of this tree, if it has one, and stops maintaining it.
+	 */
+	public void detachIndex() {
+		this.index = null;
+	}
+
+	/**
+	 * Removes this tree's entries from the index it shares with the tree it
+	 * was split from, in O(N), and stops maintaining it.
+	 */
+	private void releaseIndex() {
+		if (this.index != null)
+			this.index.unindex(this, 0, this.size());
+		this.index = null;
+	}
+
+	/**
+	 * @return the index that attachIndex() made for this tree; null if there
+	 *         is none
+	 */
+	QGramIndex index() {
+		return this.index;
+	}
+
+	/**
+	 * Searches the subtrees of this tree in parallel on the common
+	 * ForkJoinPool; see ParallelFind. The tree must not be edited meanwhile.
+	 *
+	 * @param s
+	 *            the string to look for
+	 * @return the positions of all occurrences of s, overlapping ones
+	 *         included, in increasing order
+	 */
+	public int[] findAll(String s) {
+		return findAll(s, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param s
+	 *            the string to look for
+	 * @param pool
+	 *            the pool to run the search on
+	 * @return the positions of all occurrences of s, overlapping ones
+	 *         included, in increasing order
+	 */
+	public int[] findAll(String s, ForkJoinPool pool) {
+		if (s.length() == 0)
+			return IntStream.rangeClosed(0, this.size()).toArray();
+		if (s.length() > this.size())
+			return new int[0];
+		return pool.invoke(new ParallelFind(this, new KmpMatcher(s), 0, this.size()));
+	}
+
+	/**
+	 * Runs pattern against asCharSequence(), so the document is never copied
+	 * into a String. Lookbehind and word boundaries see the text before fromPos.
+	 * 
+	 * @param pattern
+	 *            the regex to look for
+	 * @param fromPos
+	 *            the position in the tree to begin the search
+	 * @return the first match that does not start before fromPos, good until
+	 *         this tree is next edited; null if there is none
+	 */
+	public MatchResult findRegex(Pattern pattern, int fromPos) {
+		Iterator<MatchResult> matches = matches(pattern, fromPos);
+		return matches.hasNext() ? matches.next() : null;
+	}
+
+	/**
+	 * @param pattern
+	 *            the regex to look for
+	 * @return the matches of pattern in this tree, in order
+	 */
+	public Iterator<MatchResult> matches(Pattern pattern) {
+		return matches(pattern, 0);
+	}
+
+	/**
+	 * Finds each match only when asked for it, carrying on from the end of the
+	 * last one. The iterator and its matches are good until this tree is next
+	 * edited.
+	 * 
+	 * @param pattern
+	 *            the regex to look for
+	 * @param fromPos
+	 *            the position in the tree to begin the search
+	 * @return the matches of pattern that do not start before fromPos, in
+	 *         order
+	 */
+	public Iterator<MatchResult> matches(Pattern pattern, int fromPos) {
+		if (fromPos < 0)
+			fromPos = 0;
+		if (fromPos > this.size())
+			return Collections.emptyIterator();
+		return new RegexMatchIterator(this, pattern, fromPos);
+	}
+
+	/**
+	 * @return The root of this tree.
+	 */
+	public Node getRoot() {
+		return this.root;
+	}
+
+	public int totalRotationCount() {
+		return this.rotations;
+	}
+}
+
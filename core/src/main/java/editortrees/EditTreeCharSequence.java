@@ -0,0 +1,86 @@
+package editortrees;
+
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+
+// A CharSequence over a range of an EditTree, so that regex, parsers and
+// Appendables can read the tree without toString() copying it. charAt() goes
+// through a cached Cursor: reads near the previous one, as a scan makes, cost
+// amortized O(1); others cost a descent. Like a Cursor, the view is only good
+// until the tree is next edited.
+
+public class EditTreeCharSequence implements CharSequence {
+
+	private static final int MAX_STEPS = 16; // further than this, descend again
+
+	private final EditTree tree;
+	private final int start;
+	private final int end;
+	private Cursor cursor; // made on first use
+
+	EditTreeCharSequence(EditTree tree, int start, int end) {
+		this.tree = tree;
+		this.start = start;
+		this.end = end;
+	}
+
+	@Override
+	public int length() {
+		return this.end - this.start;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= this.length())
+			throw new IndexOutOfBoundsException("index " + index + ", length " + this.length());
+		int pos = this.start + index;
+		if (this.cursor == null)
+			this.cursor = this.tree.cursor(pos);
+		int steps = pos - this.cursor.position();
+		if (steps < 0 && steps >= -MAX_STEPS) {
+			// the last previousInt() leaves the cursor before pos, ready for
+			// a backward scan
+			int c = 0;
+			for (; steps < 0; steps++)
+				c = this.cursor.previousInt();
+			return (char) c;
+		}
+		if (steps > MAX_STEPS || steps < 0)
+			this.cursor.moveTo(pos);
+		else
+			for (; steps > 0; steps--)
+				this.cursor.nextInt();
+		return (char) this.cursor.nextInt();
+	}
+
+	/**
+	 * O(1); the new view shares the tree, and makes its own cursor when first
+	 * read.
+	 */
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if (start < 0 || end > this.length() || start > end)
+			throw new IndexOutOfBoundsException("start " + start + ", end " + end
+					+ ", length " + this.length());
+		return new EditTreeCharSequence(this.tree, this.start + start, this.start + end);
+	}
+
+	/**
+	 * Streams the characters in order, splitting like EditTree.chars() if
+	 * made parallel. O(log N) to start, then amortized O(1) per character.
+	 */
+	@Override
+	public IntStream chars() {
+		return StreamSupport.intStream(
+				new EditTreeSpliterator(this.tree, this.start, this.end), false);
+	}
+
+	/**
+	 * O(log N + length)
+	 */
+	@Override
+	public String toString() {
+		return this.tree.get(this.start, this.length());
+	}
+}
@@ -0,0 +1,85 @@
+package editortrees;
+
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+
+
+// A Spliterator over a range of an EditTree's characters. Splitting finds the
+// topmost node inside the range and cuts there, so the halves follow the
+// tree's own subtrees and their sizes are exact. Traversal steps a Cursor.
+// The tree must not be edited while a stream over it is running.
+
+public class EditTreeSpliterator implements Spliterator.OfInt {
+
+	static final int MIN_SPLIT = 1024; // smaller ranges are not worth a task
+
+	private final EditTree tree;
+	private int pos; // of the next character to traverse
+	private final int end;
+	private Cursor cursor; // at pos once traversal has started
+
+	EditTreeSpliterator(EditTree tree, int start, int end) {
+		this.tree = tree;
+		this.pos = start;
+		this.end = end;
+	}
+
+	@Override
+	public boolean tryAdvance(IntConsumer action) {
+		if (this.pos >= this.end)
+			return false;
+		if (this.cursor == null)
+			this.cursor = this.tree.cursor(this.pos);
+		action.accept(this.cursor.nextInt());
+		this.pos++;
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(IntConsumer action) {
+		if (this.pos >= this.end)
+			return;
+		Node currentNode = this.tree.getRoot().select(this.pos);
+		for (; this.pos < this.end; this.pos++) {
+			action.accept(currentNode.element);
+			currentNode = currentNode.successor();
+		}
+	}
+
+	/**
+	 * Hands off the characters before the topmost node inside the remaining
+	 * range, found by one O(log N) descent.
+	 */
+	@Override
+	public Spliterator.OfInt trySplit() {
+		if (this.end - this.pos < MIN_SPLIT)
+			return null;
+		Node currentNode = this.tree.getRoot();
+		int offset = 0; // position of currentNode's subtree in the tree
+		while (currentNode != null) {
+			int nodePos = offset + currentNode.rank();
+			if (nodePos <= this.pos) {
+				offset = nodePos + 1;
+				currentNode = currentNode.right;
+			} else if (nodePos >= this.end) {
+				currentNode = currentNode.left;
+			} else {
+				Spliterator.OfInt prefix = new EditTreeSpliterator(this.tree, this.pos, nodePos);
+				this.pos = nodePos;
+				this.cursor = null;
+				return prefix;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public long estimateSize() {
+		return this.end - this.pos;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | SIZED | SUBSIZED | NONNULL;
+	}
+}
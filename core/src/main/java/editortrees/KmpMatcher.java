@@ -0,0 +1,99 @@
+package editortrees;
+
+import java.util.function.IntConsumer;
+
+
+// Knuth-Morris-Pratt matching of one pattern against the characters of a tree,
+// read in place by following Node.successor(). Each text character is read
+// once, so a scan is O(text + pattern) with no copying of the tree.
+
+class KmpMatcher {
+
+	private final char[] pattern;
+	private final int[] failure; // failure[i]: longest proper border of pattern[0..i]
+
+	public KmpMatcher(String pattern) {
+		this.pattern = pattern.toCharArray();
+		this.failure = new int[this.pattern.length];
+		int border = 0;
+		for (int i = 1; i < this.pattern.length; i++) {
+			while (border > 0 && this.pattern[i] != this.pattern[border])
+				border = this.failure[border - 1];
+			if (this.pattern[i] == this.pattern[border])
+				border++;
+			this.failure[i] = border;
+		}
+	}
+
+	/**
+	 * @return the length of the pattern
+	 */
+	public int length() {
+		return this.pattern.length;
+	}
+
+	/**
+	 * Scans the text positions from start (inclusive) to end (exclusive).
+	 * 
+	 * @param startNode
+	 *            the node at position start
+	 * @param start
+	 *            position of startNode in its tree
+	 * @param end
+	 *            position just past the last character that may be read
+	 * @return the position of the first occurrence lying wholly inside
+	 *         [start, end); -1 if there is none
+	 */
+	public int find(Node startNode, int start, int end) {
+		if (this.pattern.length == 0)
+			return (start <= end) ? start : -1;
+		int matched = 0;
+		Node currentNode = startNode;
+		for (int pos = start; pos < end; pos++) {
+			char c = currentNode.element;
+			while (matched > 0 && c != this.pattern[matched])
+				matched = this.failure[matched - 1];
+			if (c == this.pattern[matched])
+				matched++;
+			if (matched == this.pattern.length)
+				return pos - matched + 1;
+			currentNode = currentNode.successor();
+		}
+		return -1;
+	}
+
+	/**
+	 * Reports every occurrence, overlapping ones included, that starts in
+	 * [start, lastStart], reading no further than end.
+	 * 
+	 * @param startNode
+	 *            the node at position start
+	 * @param start
+	 *            position of startNode in its tree
+	 * @param lastStart
+	 *            the last position at which a reported occurrence may start
+	 * @param end
+	 *            position just past the last character that may be read
+	 * @param out
+	 *            receives the start positions in increasing order
+	 */
+	public void findAll(Node startNode, int start, int lastStart, int end, IntConsumer out) {
+		int matched = 0;
+		Node currentNode = startNode;
+		for (int pos = start; pos < end; pos++) {
+			char c = currentNode.element;
+			while (matched > 0 && c != this.pattern[matched])
+				matched = this.failure[matched - 1];
+			if (c == this.pattern[matched])
+				matched++;
+			if (matched == this.pattern.length) {
+				int found = pos - matched + 1;
+				if (found > lastStart)
+					return;
+				out.accept(found);
+				matched = this.failure[matched - 1];
+			}
+			currentNode = currentNode.successor();
+		}
+	}
+}
@@ -3,18 +3,19 @@ package editortrees;
 
 
 // A node in a height-balanced binary tree with rank.
+// There is one per character, so it holds no display state: DisplayTree
+// computes its layout while painting.
 
 public class Node {
 	
 	enum Code {SAME, LEFT, RIGHT};
 	
-	String sLeft = "";
-	String sRight = "";
-	int centerLeft = 0;
-	int centerRight = 0;
 	char element;            
 	Node left, right; // subtrees
 	int size;
+	int newlines; // '\n' characters in this subtree, kept by setSize()
+	byte height; // stored so that height() and setBalance() are O(1); a byte
+	             // keeps the object at 40 bytes, and AVL heights stay below 64
 	Code balance; 
 	Node parent;  // You may want this field.
 	
@@ -25,6 +26,7 @@ public class Node {
 		this.right = null;
 		this.balance = Code.SAME;
 		this.size = 0;
+		this.height = -1;
 	}
 	
 	public Node(Node p, char c, Node left, Node right){ //node constructor that is needed so it can be inserted
@@ -32,6 +34,7 @@ public class Node {
 		this.element = c;
 		this.left = left;
 		this.right = right;
+		this.setHeight();
 		this.setBalance();
 		this.setSize();
 	}
@@ -42,19 +45,20 @@ public class Node {
 		this.left = null;
 		this.right = null;
 		this.balance = Code.SAME;
+		this.height = 0;
 		this.setSize();
 	}
 
 	/**
-	 * Sets the balance of the node based on height O(log n)
+	 * Sets the balance of the node based on the stored heights of its children O(1)
 	 */
 	public void setBalance() { //sets the balance
 		int leftHeight = -1;
 		int rightHeight = -1;
 		if(this.left != null)
-			leftHeight = this.left.height(); //if there is a left, then recurse through the left
+			leftHeight = this.left.height;
 		if(this.right != null)
-			rightHeight = this.right.height(); //if there is a right, then recurse through the right
+			rightHeight = this.right.height;
 		if(leftHeight - rightHeight<0)
 			this.balance = Code.RIGHT; //if there is a left has a lesser height then the right,then code = \
 		else if(leftHeight - rightHeight>0)
@@ -64,22 +68,25 @@ public class Node {
 	}
 
 	/**
-	 * Finds the height in O(log n) time
-	 * 
-	 * @return height
+	 * Because we store height as a field, we need only access the two children in order to reset it.
+	 * Must be called bottom-up whenever the shape below this node changes.
+	 */
+	public void setHeight() {
+		int leftHeight = -1;
+		int rightHeight = -1;
+		if(this.left != null)
+			leftHeight = this.left.height;
+		if(this.right != null)
+			rightHeight = this.right.height;
+		this.height = (byte) (1 + Math.max(leftHeight, rightHeight));
+	}
+
+	/**
+	 * @return height, in O(1) time
 	 */
 	public int height() {
-		if (this.left == null && this.right == null)
-			return 0; //base case. this is for when the leaf is hit.
-		else if (this.left == null)
-			return 1 + this.right.height(); // if there is a right. then add 1 and recurse down the right
-		else if (this.right == null)
-			return 1 + this.left.height(); // if there is a right. then add 1 and recurse down the left
-		if(this.balance == Code.SAME || this.balance == Code.LEFT)
-			return 1 + this.left.height(); // if there is 2 childern or the parent is left slighted with children, add 1 and recurse down to the left
-		else
-			return 1 + this.right.height(); // otherwise go down right	
-		}
+		return this.height;
+	}
 	
 	/**
 	 * Things that must happen in these methods:
@@ -106,8 +113,11 @@ public class Node {
 		this.right = temporaryNode; 
 		
 		this.setSize();
+		this.setHeight();
+		this.setBalance();
 		this.parent.setSize();
-		this.parent.balance = Node.Code.SAME; //since the parent always has two children the code is made to be same
+		this.parent.setHeight();
+		this.parent.setBalance(); //heights are stored, so the codes can be recomputed exactly
 		
 		return this.parent;
 	}
@@ -131,8 +141,11 @@ public class Node {
 		
 		
 		this.setSize();
+		this.setHeight();
+		this.setBalance();
 		this.parent.setSize();
-		this.parent.balance = Node.Code.SAME;
+		this.parent.setHeight();
+		this.parent.setBalance();
 		
 		return this.parent;
 
@@ -141,20 +154,89 @@ public class Node {
 	/**
 	 * Uses our size field to set the size of the succeeding nodes.
 	 * Because we store size as a field, we need only access its two children in order to reset size
+	 * and the newline count.
 	 */
 	
 	public void setSize() {
-		if(this.left == null && this.right == null)
-			this.size = 1;
-		else if(this.left == null)
-			this.size = 1 + this.right.size;
-		else if(this.right == null)
-			this.size = 1 + this.left.size;
-		else
-			this.size = 1 + this.left.size + this.right.size;
+		this.size = 1;
+		this.newlines = (this.element == '\n') ? 1 : 0;
+		if(this.left != null) {
+			this.size += this.left.size;
+			this.newlines += this.left.newlines;
+		}
+		if(this.right != null) {
+			this.size += this.right.size;
+			this.newlines += this.right.newlines;
+		}
 	}
 	
 	/**
+	 * @return the number of nodes before this one in its own subtree, i.e. the
+	 *         size of the left subtree. O(1)
+	 */
+	public int rank() {
+		if(this.left == null)
+			return 0;
+		return this.left.size;
+	}
+
+	/**
+	 * Descends from this node by rank: going left keeps pos, going right
+	 * subtracts rank() + 1. O(height), no parent walks.
+	 * 
+	 * @param pos
+	 *            inOrder position relative to this subtree
+	 * @return the node at that position, or null if pos is out of range
+	 */
+	public Node select(int pos) {
+		Node currentNode = this;
+		while(currentNode != null) {
+			int rank = currentNode.rank();
+			if(pos < rank)
+				currentNode = currentNode.left;
+			else if(pos > rank) {
+				pos -= rank + 1;
+				currentNode = currentNode.right;
+			}
+			else
+				return currentNode;
+		}
+		return null;
+	}
+
+	/**
+	 * Uses parent pointers, so walking a whole subtree with it is amortized
+	 * O(1) per node.
+	 * 
+	 * @return the next node in inOrder, or null if this is the last one
+	 */
+	public Node successor() {
+		Node currentNode = this;
+		if(currentNode.right != null)
+			return currentNode.right.first();
+		while(currentNode.parent != null && currentNode == currentNode.parent.right)
+			currentNode = currentNode.parent;
+		return currentNode.parent;
+	}
+
+	/**
+	 * The mirror image of successor(), also amortized O(1) per step.
+	 * 
+	 * @return the previous node in inOrder, or null if this is the first one
+	 */
+	public Node predecessor() {
+		Node currentNode = this;
+		if(currentNode.left != null)
+			return currentNode.left.last();
+		while(currentNode.parent != null && currentNode == currentNode.parent.left)
+			currentNode = currentNode.parent;
+		return currentNode.parent;
+	}
+
+	/**
+	 * Walks parent pointers to the root, so this is O(log n). Descents should
+	 * use rank() and select() instead.
+	 * 
 	 * @return the inOrder position in this tree.
 	 */
 	
@@ -179,18 +261,43 @@ public class Node {
 	}
 	
 	/**
+	 * @return the first node in inOrder of this subtree
+	 */
+	public Node first() {
+		Node currentNode = this;
+		while(currentNode.left != null)
+			currentNode = currentNode.left;
+		return currentNode;
+	}
+
+	/**
+	 * @return the last node in inOrder of this subtree
+	 */
+	public Node last() {
+		Node currentNode = this;
+		while(currentNode.right != null)
+			currentNode = currentNode.right;
+		return currentNode;
+	}
+
+	/**
+	 * Iterative and presized, so this is O(n) with no recursion.
+	 * 
 	 * @return string representation of an inOrder traversal of this tree.
 	 */
 	
 	public String inOrderString(){
-		String inOrderString = "";
-		if (this.left != null)
-			inOrderString += this.left.inOrderString(); // Left
-		if(this.element!='\0')
-			inOrderString += this.element; // Node
-		if (this.right != null)
-			inOrderString += this.right.inOrderString();
-		return inOrderString;
+		if(this.size == 0)
+			return "";
+		// the walk stops at the first node after this subtree
+		Node end = this;
+		while(end.parent != null && end == end.parent.right)
+			end = end.parent;
+		end = end.parent;
+		StringBuilder inOrder = new StringBuilder(this.size);
+		for(Node currentNode = this.first(); currentNode != end; currentNode = currentNode.successor())
+			inOrder.append(currentNode.element);
+		return inOrder.toString();
 	}
 
 	public int shiftLeft() {
@@ -0,0 +1,76 @@
+package editortrees;
+
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+
+// Finds every occurrence of a pattern in a range of an EditTree, on a
+// ForkJoinPool. A range splits at the topmost node inside it, so the parts
+// follow the tree's own subtrees. Each part owns the occurrences that start in
+// it and reads up to length - 1 characters past its end to see the ones that
+// straddle the cut, so every occurrence is reported exactly once.
+
+class ParallelFind extends RecursiveTask<int[]> {
+
+	private static final long serialVersionUID = 3209347106287753204L;
+
+	static final int MIN_SPLIT = 1 << 16; // smaller ranges are scanned in one task
+
+	private final EditTree tree;
+	private final KmpMatcher matcher;
+	private final int start;
+	private final int end; // occurrences starting at or after end belong to a later part
+
+	ParallelFind(EditTree tree, KmpMatcher matcher, int start, int end) {
+		this.tree = tree;
+		this.matcher = matcher;
+		this.start = start;
+		this.end = end;
+	}
+
+	@Override
+	protected int[] compute() {
+		int cut = (this.end - this.start < MIN_SPLIT) ? -1 : cut();
+		if (cut < 0)
+			return scan();
+		ParallelFind prefix = new ParallelFind(this.tree, this.matcher, this.start, cut);
+		prefix.fork();
+		int[] suffixFound = new ParallelFind(this.tree, this.matcher, cut, this.end).compute();
+		int[] prefixFound = prefix.join();
+		int[] found = new int[prefixFound.length + suffixFound.length];
+		System.arraycopy(prefixFound, 0, found, 0, prefixFound.length);
+		System.arraycopy(suffixFound, 0, found, prefixFound.length, suffixFound.length);
+		return found;
+	}
+
+	/**
+	 * @return the position of the topmost node strictly inside (start, end),
+	 *         found by one O(log N) descent; -1 if there is none
+	 */
+	private int cut() {
+		Node currentNode = this.tree.getRoot();
+		int offset = 0; // position of currentNode's subtree in the tree
+		while (currentNode != null) {
+			int nodePos = offset + currentNode.rank();
+			if (nodePos <= this.start) {
+				offset = nodePos + 1;
+				currentNode = currentNode.right;
+			} else if (nodePos >= this.end) {
+				currentNode = currentNode.left;
+			} else {
+				return nodePos;
+			}
+		}
+		return -1;
+	}
+
+	private int[] scan() {
+		int lastStart = Math.min(this.end - 1, this.tree.size() - this.matcher.length());
+		if (lastStart < this.start)
+			return new int[0];
+		int readEnd = lastStart + this.matcher.length();
+		IntStream.Builder found = IntStream.builder();
+		this.matcher.findAll(this.tree.getRoot().select(this.start), this.start, lastStart, readEnd, found);
+		return found.build().toArray();
+	}
+}
@@ -0,0 +1,343 @@
+package editortrees;
+
+
+// An immutable version of EditTree. Every edit returns a new tree and leaves
+// this one as it was, copying only the O(log N) nodes on the edited path and
+// sharing the rest, so holding on to a version is an O(1) snapshot that no
+// later edit can disturb.
+
+public final class PersistentEditTree {
+
+	private static final PersistentEditTree EMPTY = new PersistentEditTree((PersistentNode) null);
+
+	private final PersistentNode root;
+
+	/**
+	 * Construct an empty tree
+	 */
+	public PersistentEditTree() {
+		this((PersistentNode) null);
+	}
+
+	/**
+	 * Create a tree whose toString is s, in O(N) time.
+	 *
+	 * @param s
+	 */
+	public PersistentEditTree(CharSequence s) {
+		this(build(s, 0, s.length()));
+	}
+
+	/**
+	 * Create a tree with the contents of e, in O(N) time. Later edits to e do
+	 * not show up in the new tree.
+	 *
+	 * @param e
+	 */
+	public PersistentEditTree(EditTree e) {
+		this(e.toString());
+	}
+
+	private PersistentEditTree(PersistentNode root) {
+		this.root = root;
+	}
+
+	private static PersistentEditTree of(PersistentNode root) {
+		if (root == null)
+			return EMPTY;
+		return new PersistentEditTree(root);
+	}
+
+	/**
+	 * Builds a perfectly balanced tree from positions lo (inclusive) to hi
+	 * (exclusive) of s.
+	 */
+	private static PersistentNode build(CharSequence s, int lo, int hi) {
+		if (lo >= hi)
+			return null;
+		int mid = (lo + hi - 1) >>> 1;
+		return new PersistentNode(build(s, lo, mid), s.charAt(mid), build(s, mid + 1, hi));
+	}
+
+	/**
+	 * @return the height of this tree; -1 if it is empty
+	 */
+	public int height() {
+		return PersistentNode.height(this.root);
+	}
+
+	/**
+	 * @return the number of characters in this tree
+	 */
+	public int size() {
+		return PersistentNode.size(this.root);
+	}
+
+	/**
+	 * @return The root of this tree; null if it is empty.
+	 */
+	public PersistentNode getRoot() {
+		return this.root;
+	}
+
+	/**
+	 * return the string produced by an inorder traversal of this tree, in O(N)
+	 */
+	public String toString() {
+		return get(0, this.size());
+	}
+
+	/**
+	 * @param c
+	 *            character to add to the end of this tree.
+	 * @return the new version
+	 */
+	public PersistentEditTree add(char c) {
+		return add(c, this.size());
+	}
+
+	/**
+	 * O(log N), copying the nodes on the path to pos.
+	 *
+	 * @param c
+	 *            character to add
+	 * @param pos
+	 *            character added in this inorder position
+	 * @return the new version
+	 * @throws IndexOutOfBoundsException
+	 *             if pos is negative or too large for this tree
+	 */
+	public PersistentEditTree add(char c, int pos) throws IndexOutOfBoundsException {
+		if (pos > this.size() || pos < 0)
+			throw new IndexOutOfBoundsException();
+		return of(add(this.root, c, pos));
+	}
+
+	private static PersistentNode add(PersistentNode n, char c, int pos) {
+		if (n == null)
+			return new PersistentNode(null, c, null);
+		int rank = n.rank();
+		if (pos <= rank)
+			return balance(add(n.left, c, pos), n.element, n.right);
+		return balance(n.left, n.element, add(n.right, c, pos - rank - 1));
+	}
+
+	/**
+	 * O(log N). Use get(pos) first to see which character goes.
+	 *
+	 * @param pos
+	 *            position of character to delete
+	 * @return the new version
+	 * @throws IndexOutOfBoundsException
+	 */
+	public PersistentEditTree delete(int pos) throws IndexOutOfBoundsException {
+		if (pos >= this.size() || pos < 0)
+			throw new IndexOutOfBoundsException("Number is too large.");
+		return of(delete(this.root, pos));
+	}
+
+	private static PersistentNode delete(PersistentNode n, int pos) {
+		int rank = n.rank();
+		if (pos < rank)
+			return balance(delete(n.left, pos), n.element, n.right);
+		if (pos > rank)
+			return balance(n.left, n.element, delete(n.right, pos - rank - 1));
+		if (n.left == null)
+			return n.right;
+		if (n.right == null)
+			return n.left;
+		return balance(n.left, first(n.right), removeFirst(n.right));
+	}
+
+	private static char first(PersistentNode n) {
+		while (n.left != null)
+			n = n.left;
+		return n.element;
+	}
+
+	private static PersistentNode removeFirst(PersistentNode n) {
+		if (n.left == null)
+			return n.right;
+		return balance(removeFirst(n.left), n.element, n.right);
+	}
+
+	/**
+	 * @param start
+	 *            position of beginning of string to delete
+	 * @param length
+	 *            length of string to delete
+	 * @return the new version, without that string
+	 * @throws IndexOutOfBoundsException
+	 *             unless both start and start+length-1 are in range for this
+	 *             tree.
+	 */
+	public PersistentEditTree delete(int start, int length)
+			throws IndexOutOfBoundsException {
+		if (start < 0 || length < 0 || start + length > this.size())
+			throw new IndexOutOfBoundsException(
+					(start < 0) ? "negative first argument to delete"
+							: "delete range extends past end of string");
+		PersistentNode[] before = new PersistentNode[2];
+		split(this.root, start, before);
+		PersistentNode[] after = new PersistentNode[2];
+		split(before[1], length, after);
+		return of(concatenate(before[0], after[1]));
+	}
+
+	/**
+	 * @param pos
+	 *            position in the tree
+	 * @return the character at that position
+	 * @throws IndexOutOfBoundsException
+	 */
+	public char get(int pos) throws IndexOutOfBoundsException {
+		if (pos >= this.size() || pos < 0)
+			throw new IndexOutOfBoundsException();
+		PersistentNode currentNode = this.root;
+		while (true) {
+			int rank = currentNode.rank();
+			if (pos < rank) {
+				currentNode = currentNode.left;
+			} else if (pos > rank) {
+				pos -= rank + 1;
+				currentNode = currentNode.right;
+			} else {
+				return currentNode.element;
+			}
+		}
+	}
+
+	/**
+	 * O(log N + length)
+	 *
+	 * @param pos
+	 *            location of the beginning of the string to retrieve
+	 * @param length
+	 *            length of the string to retrieve
+	 * @return string of length that starts in position pos
+	 * @throws IndexOutOfBoundsException
+	 *             unless both pos and pos+length-1 are legitimate indexes
+	 *             within this tree.
+	 */
+	public String get(int pos, int length) throws IndexOutOfBoundsException {
+		if (pos < 0 || length < 0 || pos + length > this.size())
+			throw new IndexOutOfBoundsException(
+					(pos < 0 || length < 0) ? "negative position or length"
+							: "range extends past end of string");
+		char[] chars = new char[length];
+		copy(this.root, pos, pos + length, chars, -pos);
+		return new String(chars);
+	}
+
+	/**
+	 * Copies the characters of subtree n at positions [from, to) (relative to
+	 * n) to dest, where position p lands at index p + shift.
+	 */
+	private static void copy(PersistentNode n, int from, int to, char[] dest, int shift) {
+		if (n == null || from >= to)
+			return;
+		int rank = n.rank();
+		if (from < rank)
+			copy(n.left, from, Math.min(to, rank), dest, shift);
+		if (from <= rank && rank < to)
+			dest[rank + shift] = n.element;
+		if (to > rank + 1)
+			copy(n.right, Math.max(from - rank - 1, 0), to - rank - 1, dest, shift + rank + 1);
+	}
+
+	/**
+	 * O(log N). Neither tree changes; the result shares nodes with both.
+	 *
+	 * @param other
+	 * @return a tree holding this tree's characters followed by other's
+	 */
+	public PersistentEditTree concatenate(PersistentEditTree other) {
+		return of(concatenate(this.root, other.root));
+	}
+
+	private static PersistentNode concatenate(PersistentNode left, PersistentNode right) {
+		if (left == null)
+			return right;
+		if (right == null)
+			return left;
+		return join(left, first(right), removeFirst(right));
+	}
+
+	/**
+	 * O(log N). This tree does not change.
+	 *
+	 * @param pos
+	 *            where to split this tree
+	 * @return two trees: the characters before pos, then those from pos on
+	 * @throws IndexOutOfBoundsException
+	 */
+	public PersistentEditTree[] split(int pos) throws IndexOutOfBoundsException {
+		if (pos < 0 || pos > this.size())
+			throw new IndexOutOfBoundsException();
+		PersistentNode[] halves = new PersistentNode[2];
+		split(this.root, pos, halves);
+		return new PersistentEditTree[] { of(halves[0]), of(halves[1]) };
+	}
+
+	/**
+	 * Splits subtree n into the characters before pos (halves[0]) and from
+	 * pos on (halves[1]).
+	 */
+	private static void split(PersistentNode n, int pos, PersistentNode[] halves) {
+		if (n == null) {
+			halves[0] = null;
+			halves[1] = null;
+			return;
+		}
+		int rank = n.rank();
+		if (pos <= rank) {
+			split(n.left, pos, halves);
+			halves[1] = join(halves[1], n.element, n.right);
+		} else {
+			split(n.right, pos - rank - 1, halves);
+			halves[0] = join(n.left, n.element, halves[0]);
+		}
+	}
+
+	/**
+	 * Joins two trees with c between them, copying only the spine of the
+	 * taller one: O(|height(left) - height(right)| + 1).
+	 */
+	private static PersistentNode join(PersistentNode left, char c, PersistentNode right) {
+		int leftHeight = PersistentNode.height(left);
+		int rightHeight = PersistentNode.height(right);
+		if (leftHeight > rightHeight + 1)
+			return balance(left.left, left.element, join(left.right, c, right));
+		if (rightHeight > leftHeight + 1)
+			return balance(join(left, c, right.left), right.element, right.right);
+		return new PersistentNode(left, c, right);
+	}
+
+	/**
+	 * Makes a node with the given children, whose heights may differ by up to
+	 * 2, rotating as needed so that the result is balanced.
+	 */
+	private static PersistentNode balance(PersistentNode left, char c, PersistentNode right) {
+		int leftHeight = PersistentNode.height(left);
+		int rightHeight = PersistentNode.height(right);
+		if (leftHeight > rightHeight + 1) {
+			if (PersistentNode.height(left.left) >= PersistentNode.height(left.right))
+				return new PersistentNode(left.left, left.element,
+						new PersistentNode(left.right, c, right));
+			return new PersistentNode(
+					new PersistentNode(left.left, left.element, left.right.left),
+					left.right.element,
+					new PersistentNode(left.right.right, c, right));
+		}
+		if (rightHeight > leftHeight + 1) {
+			if (PersistentNode.height(right.right) >= PersistentNode.height(right.left))
+				return new PersistentNode(new PersistentNode(left, c, right.left),
+						right.element, right.right);
+			return new PersistentNode(
+					new PersistentNode(left, c, right.left.left),
+					right.left.element,
+					new PersistentNode(right.left.right, right.element, right.right));
+		}
+		return new PersistentNode(left, c, right);
+	}
+}
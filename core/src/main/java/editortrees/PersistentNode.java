@@ -0,0 +1,45 @@
+package editortrees;
+
+
+// A node in a PersistentEditTree. Nodes never change once made, so any
+// number of tree versions can share them; an edit copies only the nodes on
+// the path it touches.
+
+public final class PersistentNode {
+
+	final char element;
+	final PersistentNode left, right; // subtrees
+	final int size;
+	final int height;
+
+	PersistentNode(PersistentNode left, char element, PersistentNode right) {
+		this.element = element;
+		this.left = left;
+		this.right = right;
+		this.size = size(left) + 1 + size(right);
+		this.height = Math.max(height(left), height(right)) + 1;
+	}
+
+	/**
+	 * @return the number of characters before this one in its own subtree
+	 */
+	public int rank() {
+		return size(this.left);
+	}
+
+	public char getElement() {
+		return this.element;
+	}
+
+	static int height(PersistentNode n) {
+		if (n == null)
+			return -1;
+		return n.height;
+	}
+
+	static int size(PersistentNode n) {
+		if (n == null)
+			return 0;
+		return n.size;
+	}
+}
@@ -0,0 +1,281 @@
+package editortrees;
+
+import java.util.Arrays;
+
+
+// An index from each q-gram (run of q characters) of an EditTree to the nodes
+// that start it. Nodes are never copied or moved between positions, so an edit
+// only changes the grams that overlap it, and the tree's hooks fix just those:
+// O(q + k) entries for an edit of k characters, plus an O(log N) descent.
+// find() looks up the rarest gram of the pattern and checks each node that
+// starts it, so its cost follows the number of occurrences rather than N.
+//
+// The entries live in parallel arrays rather than boxed collections: an
+// open-addressed table of nodes, found by identity hash, whose slots are
+// doubly linked into one list per gram, and an open-addressed table of grams
+// holding each list's head and length. That is 12 bytes a slot; tables grow
+// at three quarters full and shrink when under an eighth.
+
+class QGramIndex {
+
+	static final int MAX_Q = 4; // grams are packed 16 bits a character into a long
+
+	private static final int MIN_CAPACITY = 16;
+	private static final Node REMOVED = new Node(); // marks a slot freed by remove()
+	private static final int UNUSED = -2; // in heads: no gram in this slot
+
+	final int q;
+	private final long mask;
+
+	// entries: one slot per node that starts a gram
+	private Node[] nodes;
+	private int[] next; // next slot with the same gram; -1 at the end
+	private int[] previous; // previous slot with the same gram; -1 at the head
+	private int entries;
+	private int usedSlots; // entries plus REMOVED slots
+
+	// grams: the list of slots for each gram
+	private long[] grams;
+	private int[] heads; // first slot of the gram's list; -1 if empty
+	private int[] counts;
+	private int usedGrams; // including grams whose lists became empty
+
+	QGramIndex(int q) {
+		if (q < 1 || q > MAX_Q)
+			throw new IllegalArgumentException("q must be from 1 to " + MAX_Q + ": " + q);
+		this.q = q;
+		this.mask = (q == MAX_Q) ? -1L : (1L << (16 * q)) - 1;
+		allocate(MIN_CAPACITY, MIN_CAPACITY);
+	}
+
+	private void allocate(int capacity, int gramCapacity) {
+		this.nodes = new Node[capacity];
+		this.next = new int[capacity];
+		this.previous = new int[capacity];
+		this.entries = 0;
+		this.usedSlots = 0;
+		this.grams = new long[gramCapacity];
+		this.heads = new int[gramCapacity];
+		Arrays.fill(this.heads, UNUSED);
+		this.counts = new int[gramCapacity];
+		this.usedGrams = 0;
+	}
+
+	/**
+	 * Adds the grams of tree that overlap positions [start, end) or that
+	 * cross the boundary before start.
+	 */
+	void index(EditTree tree, int start, int end) {
+		update(tree, start, end, true);
+	}
+
+	/**
+	 * Removes the grams of tree that overlap positions [start, end) or that
+	 * cross the boundary before start; call it before the tree is edited
+	 * there.
+	 */
+	void unindex(EditTree tree, int start, int end) {
+		update(tree, start, end, false);
+	}
+
+	private void update(EditTree tree, int start, int end, boolean add) {
+		int first = Math.max(0, start - this.q + 1);
+		int last = Math.min(end, tree.size() - this.q + 1); // exclusive
+		if (first >= last)
+			return;
+		Node startNode = tree.getRoot().select(first);
+		Node readNode = startNode;
+		long gram = 0;
+		for (int i = 1; i < this.q; i++) {
+			gram = (gram << 16) | readNode.element;
+			readNode = readNode.successor();
+		}
+		for (int pos = first; pos < last; pos++) {
+			gram = ((gram << 16) | readNode.element) & this.mask;
+			if (add)
+				add(gram, startNode);
+			else
+				remove(gram, startNode);
+			readNode = readNode.successor();
+			startNode = startNode.successor();
+		}
+		if (!add && this.entries * 8 < this.nodes.length && this.nodes.length > MIN_CAPACITY)
+			rehash();
+	}
+
+	private void add(long gram, Node n) {
+		if ((this.usedSlots + 1) * 4 > this.nodes.length * 3
+				|| (this.usedGrams + 1) * 4 > this.grams.length * 3)
+			rehash();
+		int g = gramSlot(gram, true);
+		int slot = hash(System.identityHashCode(n), this.nodes.length);
+		while (this.nodes[slot] != null && this.nodes[slot] != REMOVED)
+			slot = (slot + 1) & (this.nodes.length - 1);
+		if (this.nodes[slot] == null)
+			this.usedSlots++;
+		this.nodes[slot] = n;
+		link(g, slot);
+		this.entries++;
+	}
+
+	private void link(int g, int slot) {
+		this.previous[slot] = -1;
+		this.next[slot] = this.heads[g];
+		if (this.heads[g] >= 0)
+			this.previous[this.heads[g]] = slot;
+		this.heads[g] = slot;
+		this.counts[g]++;
+	}
+
+	private void remove(long gram, Node n) {
+		int slot = hash(System.identityHashCode(n), this.nodes.length);
+		while (this.nodes[slot] != n) {
+			if (this.nodes[slot] == null)
+				return;
+			slot = (slot + 1) & (this.nodes.length - 1);
+		}
+		int g = gramSlot(gram, false);
+		if (this.previous[slot] >= 0)
+			this.next[this.previous[slot]] = this.next[slot];
+		else
+			this.heads[g] = this.next[slot];
+		if (this.next[slot] >= 0)
+			this.previous[this.next[slot]] = this.previous[slot];
+		this.counts[g]--;
+		this.nodes[slot] = REMOVED;
+		this.entries--;
+	}
+
+	/**
+	 * @return the slot of gram in grams; -1 if it is not there and create is
+	 *         false
+	 */
+	private int gramSlot(long gram, boolean create) {
+		int g = hash((int) (gram ^ (gram >>> 32)), this.grams.length);
+		while (this.heads[g] != UNUSED) {
+			if (this.grams[g] == gram)
+				return g;
+			g = (g + 1) & (this.grams.length - 1);
+		}
+		if (!create)
+			return -1;
+		this.grams[g] = gram;
+		this.heads[g] = -1;
+		this.usedGrams++;
+		return g;
+	}
+
+	private static int hash(int h, int capacity) {
+		int mixed = h * 0x9E3779B9;
+		return (mixed ^ (mixed >>> 16)) & (capacity - 1);
+	}
+
+	/**
+	 * Rebuilds both tables at most two thirds full, dropping REMOVED slots
+	 * and grams whose lists are empty.
+	 */
+	private void rehash() {
+		Node[] oldNodes = this.nodes;
+		int[] oldNext = this.next;
+		long[] oldGrams = this.grams;
+		int[] oldHeads = this.heads;
+		int[] oldCounts = this.counts;
+		int liveGrams = 0;
+		for (int count : oldCounts)
+			if (count > 0)
+				liveGrams++;
+		allocate(capacity(this.entries), capacity(liveGrams));
+		for (int g = 0; g < oldGrams.length; g++) {
+			if (oldCounts[g] == 0)
+				continue;
+			int newG = gramSlot(oldGrams[g], true);
+			for (int slot = oldHeads[g]; slot >= 0; slot = oldNext[slot]) {
+				Node n = oldNodes[slot];
+				int newSlot = hash(System.identityHashCode(n), this.nodes.length);
+				while (this.nodes[newSlot] != null)
+					newSlot = (newSlot + 1) & (this.nodes.length - 1);
+				this.nodes[newSlot] = n;
+				link(newG, newSlot);
+				this.usedSlots++;
+				this.entries++;
+			}
+		}
+	}
+
+	/**
+	 * @return a power of two at least one and a half times size
+	 */
+	private static int capacity(int size) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < size + size / 2)
+			capacity <<= 1;
+		return capacity;
+	}
+
+	/**
+	 * @return the number of grams indexed
+	 */
+	int entries() {
+		return this.entries;
+	}
+
+	/**
+	 * Checks each node that starts the rarest gram of s. Falls back to a scan
+	 * when that gram is so common that placing its nodes would cost more.
+	 *
+	 * @param s
+	 *            at least q characters long
+	 * @return the position in tree of the first occurrence of s that does not
+	 *         occur before position pos; -1 if s does not occur
+	 */
+	int find(EditTree tree, String s, int pos) {
+		int rarest = -1; // slot in grams
+		int offset = 0; // of the rarest gram in s
+		long gram = 0;
+		for (int i = 0; i < s.length(); i++) {
+			gram = ((gram << 16) | s.charAt(i)) & this.mask;
+			if (i < this.q - 1)
+				continue;
+			int g = gramSlot(gram, false);
+			if (g < 0 || this.counts[g] == 0)
+				return -1;
+			if (rarest < 0 || this.counts[g] < this.counts[rarest]) {
+				rarest = g;
+				offset = i - this.q + 1;
+			}
+		}
+		if ((long) this.counts[rarest] * (tree.height() + 2) > tree.size() - pos)
+			return new KmpMatcher(s).find(tree.getRoot().select(pos), pos, tree.size());
+		int found = -1;
+		for (int slot = this.heads[rarest]; slot >= 0; slot = this.next[slot]) {
+			int start = position(this.nodes[slot]) - offset;
+			if (start >= pos && (found < 0 || start < found)
+					&& start + s.length() <= tree.size() && matches(tree, s, start))
+				found = start;
+		}
+		return found;
+	}
+
+	/**
+	 * @return the position of n in its tree, found by walking up to the root
+	 */
+	private static int position(Node n) {
+		int pos = n.rank();
+		while (n.parent != null) {
+			if (n == n.parent.right)
+				pos += n.parent.rank() + 1;
+			n = n.parent;
+		}
+		return pos;
+	}
+
+	private static boolean matches(EditTree tree, String s, int start) {
+		Node currentNode = tree.getRoot().select(start);
+		for (int i = 0; i < s.length(); i++) {
+			if (currentNode.element != s.charAt(i))
+				return false;
+			currentNode = currentNode.successor();
+		}
+		return true;
+	}
+}
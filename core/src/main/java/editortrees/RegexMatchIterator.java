@@ -0,0 +1,120 @@
+package editortrees;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+// Lazily finds the matches of a regex in an EditTree, running one Matcher over
+// the tree's CharSequence view so that each find() carries on from the end of
+// the last match. Matcher.toMatchResult() would copy the whole document, so
+// each match is kept as its group bounds instead. Like the view, the iterator
+// and its matches are only good until the tree is next edited.
+
+class RegexMatchIterator implements Iterator<MatchResult> {
+
+	private final CharSequence text;
+	private final Matcher matcher;
+	private MatchResult next; // found but not yet returned; null if not looked for
+	private boolean done;
+
+	/**
+	 * Searches from fromPos to the end of tree. Lookbehind and boundaries see
+	 * the text before fromPos, and ^ does not match at fromPos unless a line
+	 * starts there.
+	 */
+	RegexMatchIterator(EditTree tree, Pattern pattern, int fromPos) {
+		this.text = tree.asCharSequence();
+		this.matcher = pattern.matcher(this.text);
+		this.matcher.useTransparentBounds(true);
+		this.matcher.useAnchoringBounds(false);
+		this.matcher.region(fromPos, tree.size());
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (this.next == null && !this.done) {
+			if (this.matcher.find())
+				this.next = new Match(this.text, this.matcher);
+			else
+				this.done = true;
+		}
+		return this.next != null;
+	}
+
+	@Override
+	public MatchResult next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		MatchResult result = this.next;
+		this.next = null;
+		return result;
+	}
+
+	// The bounds of each group of one match. Groups are read from the view
+	// only when asked for.
+
+	private static class Match implements MatchResult {
+
+		private final CharSequence text;
+		private final int[] starts;
+		private final int[] ends;
+
+		Match(CharSequence text, Matcher matcher) {
+			this.text = text;
+			this.starts = new int[matcher.groupCount() + 1];
+			this.ends = new int[this.starts.length];
+			for (int group = 0; group < this.starts.length; group++) {
+				this.starts[group] = matcher.start(group);
+				this.ends[group] = matcher.end(group);
+			}
+		}
+
+		@Override
+		public int start() {
+			return start(0);
+		}
+
+		@Override
+		public int start(int group) {
+			checkGroup(group);
+			return this.starts[group];
+		}
+
+		@Override
+		public int end() {
+			return end(0);
+		}
+
+		@Override
+		public int end(int group) {
+			checkGroup(group);
+			return this.ends[group];
+		}
+
+		@Override
+		public String group() {
+			return group(0);
+		}
+
+		@Override
+		public String group(int group) {
+			checkGroup(group);
+			if (this.starts[group] < 0)
+				return null;
+			return this.text.subSequence(this.starts[group], this.ends[group]).toString();
+		}
+
+		@Override
+		public int groupCount() {
+			return this.starts.length - 1;
+		}
+
+		private void checkGroup(int group) {
+			if (group < 0 || group > groupCount())
+				throw new IndexOutOfBoundsException("No group " + group);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package editortrees;
+
+
+// An EditTree whose nodes each keep a summary of their subtree, as given by a
+// Summarizer, so that the summary of the whole tree is O(1) and that of any
+// range or prefix is O(log N). New indexes plug in a Summarizer instead of
+// changing the tree code.
+
+public class SummarizedEditTree<S> extends EditTree {
+
+	private final Summarizer<S> summarizer;
+
+	/**
+	 * Construct an empty tree
+	 * 
+	 * @param summarizer
+	 *            what each subtree keeps
+	 */
+	public SummarizedEditTree(Summarizer<S> summarizer) {
+		this.summarizer = summarizer;
+	}
+
+	/**
+	 * Create a tree whose toString is s, in O(N) time with no rotations.
+	 * 
+	 * @param s
+	 * @param summarizer
+	 *            what each subtree keeps
+	 */
+	public SummarizedEditTree(CharSequence s, Summarizer<S> summarizer) {
+		this(summarizer);
+		add(s, 0);
+	}
+
+	/**
+	 * Make this tree be a copy of e, with all new nodes, but the same shape,
+	 * contents and summarizer.
+	 * 
+	 * @param e
+	 */
+	public SummarizedEditTree(SummarizedEditTree<S> e) {
+		this(e.summarizer);
+		copyFrom(e);
+	}
+
+	@Override
+	Node newNode(Node parent, char c) {
+		return new SummaryNode<S>(parent, c, this.summarizer);
+	}
+
+	@Override
+	EditTree newTree() {
+		return new SummarizedEditTree<S>(this.summarizer);
+	}
+
+	@Override
+	Summarizer<S> summarizer() {
+		return this.summarizer;
+	}
+
+	/**
+	 * O(1)
+	 * 
+	 * @return the summary of the whole tree
+	 */
+	@SuppressWarnings("unchecked")
+	public S summary() {
+		if (this.size() == 0)
+			return this.summarizer.identity();
+		return ((SummaryNode<S>) this.getRoot()).summary;
+	}
+
+	/**
+	 * Combines the summaries of the O(log N) subtrees that exactly cover the
+	 * range.
+	 * 
+	 * @param pos
+	 *            position of the first character to summarize
+	 * @param length
+	 *            number of characters to summarize
+	 * @return the summary of that range
+	 * @throws IndexOutOfBoundsException
+	 *             unless both pos and pos+length-1 are legitimate indexes
+	 *             within this tree.
+	 */
+	public S summary(int pos, int length) throws IndexOutOfBoundsException {
+		if (pos < 0 || length < 0 || pos + length > this.size())
+			throw new IndexOutOfBoundsException(
+					(pos < 0 || length < 0) ? "negative position or length"
+							: "range extends past end of string");
+		if (length == 0)
+			return this.summarizer.identity();
+		return summarize(this.getRoot(), pos, pos + length);
+	}
+
+	/**
+	 * @return the summary of the characters before pos
+	 */
+	public S prefixSummary(int pos) throws IndexOutOfBoundsException {
+		return summary(0, pos);
+	}
+
+	/**
+	 * Summarizes positions [from, to) of subtree n, relative to n.
+	 */
+	@SuppressWarnings("unchecked")
+	private S summarize(Node n, int from, int to) {
+		if (n == null || from >= to)
+			return this.summarizer.identity();
+		if (from <= 0 && to >= n.size)
+			return ((SummaryNode<S>) n).summary;
+		int rank = n.rank();
+		S s = this.summarizer.identity();
+		if (from < rank)
+			s = summarize(n.left, from, Math.min(to, rank));
+		if (from <= rank && rank < to)
+			s = this.summarizer.combine(s, this.summarizer.summarize(n.element));
+		if (to > rank + 1)
+			s = this.summarizer.combine(s,
+					summarize(n.right, Math.max(from - rank - 1, 0), to - rank - 1));
+		return s;
+	}
+}
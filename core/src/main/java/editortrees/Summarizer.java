@@ -0,0 +1,29 @@
+package editortrees;
+
+
+// An associative summary of runs of characters, such as a count or a byte
+// length: a monoid with identity() as its identity element. A
+// SummarizedEditTree keeps one per subtree, so the summary of any range is
+// O(log N) away.
+
+public interface Summarizer<S> {
+
+	/**
+	 * @return the summary of no characters
+	 */
+	S identity();
+
+	/**
+	 * @return the summary of the single character c
+	 */
+	S summarize(char c);
+
+	/**
+	 * Must be associative, and must not change its arguments, which may be
+	 * kept in other nodes.
+	 * 
+	 * @return the summary of the characters summarized by left followed by
+	 *         those summarized by right
+	 */
+	S combine(S left, S right);
+}
@@ -0,0 +1,40 @@
+package editortrees;
+
+
+// A Node that also keeps the Summarizer's summary of its subtree. The summary
+// is recomputed in setSize(), so every rotation, rebalance, join and build
+// that fixes sizes fixes it too.
+
+public class SummaryNode<S> extends Node {
+
+	final Summarizer<S> summarizer;
+	S summary;
+
+	public SummaryNode(Node p, char c, Summarizer<S> summarizer) {
+		super(p, c);
+		this.summarizer = summarizer;
+		this.setSize();
+	}
+
+	/**
+	 * Also combines the children's summaries with this node's. O(1) calls to
+	 * the summarizer.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void setSize() {
+		super.setSize();
+		if (this.summarizer == null)
+			return; // still in Node's constructor
+		S s = this.summarizer.summarize(this.element);
+		if (this.left != null)
+			s = this.summarizer.combine(((SummaryNode<S>) this.left).summary, s);
+		if (this.right != null)
+			s = this.summarizer.combine(s, ((SummaryNode<S>) this.right).summary);
+		this.summary = s;
+	}
+
+	public S getSummary() {
+		return this.summary;
+	}
+}
@@ -0,0 +1,48 @@
+package editortrees;
+
+
+// One edit in a batch for EditTree.applyBatch: replace length characters at
+// pos with text. Positions always refer to the document before the batch.
+
+public final class TextEdit {
+
+	final int pos;
+	final int length;
+	final String text;
+
+	private TextEdit(int pos, int length, CharSequence text) {
+		if (pos < 0 || length < 0)
+			throw new IllegalArgumentException("negative position or length");
+		this.pos = pos;
+		this.length = length;
+		this.text = text.toString();
+	}
+
+	public static TextEdit insert(int pos, CharSequence text) {
+		return new TextEdit(pos, 0, text);
+	}
+
+	public static TextEdit delete(int pos, int length) {
+		return new TextEdit(pos, length, "");
+	}
+
+	public static TextEdit replace(int pos, int length, CharSequence text) {
+		return new TextEdit(pos, length, text);
+	}
+
+	public int getPos() {
+		return this.pos;
+	}
+
+	public int getLength() {
+		return this.length;
+	}
+
+	public String getText() {
+		return this.text;
+	}
+
+	public String toString() {
+		return "replace " + this.length + " at " + this.pos + " with \"" + this.text + "\"";
+	}
+}
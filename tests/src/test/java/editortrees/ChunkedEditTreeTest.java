@@ -0,0 +1,158 @@
+package editortrees;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Runs ChunkedEditTree through random edits alongside a StringBuilder, using
+ * tiny chunks so that chunk splits and removals happen constantly.
+ */
+public class ChunkedEditTreeTest {
+
+	/**
+	 * Checks sizes, heights and the AVL property of the subtree at n.
+	 *
+	 * @return the height of n
+	 */
+	private static int checkShape(ChunkNode n) {
+		if (n == null)
+			return -1;
+		int leftHeight = checkShape(n.left);
+		int rightHeight = checkShape(n.right);
+		assertTrue(n.length > 0 && n.length <= n.chunk.length);
+		assertEquals(ChunkNode.size(n.left) + n.length + ChunkNode.size(n.right), n.size);
+		assertEquals(Math.max(leftHeight, rightHeight) + 1, n.height);
+		assertTrue(Math.abs(leftHeight - rightHeight) <= 1);
+		return n.height;
+	}
+
+	private static void check(ChunkedEditTree t, StringBuilder expected) {
+		assertEquals(expected.length(), t.size());
+		assertEquals(expected.toString(), t.toString());
+		checkShape(t.getRoot());
+	}
+
+	private static int chunks(ChunkNode n) {
+		if (n == null)
+			return 0;
+		return chunks(n.left) + 1 + chunks(n.right);
+	}
+
+	/**
+	 * @return the number of chunks in the subtree at n less than half full
+	 */
+	private static int shortChunks(ChunkNode n) {
+		if (n == null)
+			return 0;
+		int here = (n.length < n.chunk.length / 2) ? 1 : 0;
+		return shortChunks(n.left) + here + shortChunks(n.right);
+	}
+
+	@Test
+	public void testRandomAddAndDelete() {
+		Random random = new Random(21);
+		ChunkedEditTree t = new ChunkedEditTree(4);
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 5000; i++) {
+			if (expected.length() > 0 && random.nextInt(3) == 0) {
+				int pos = random.nextInt(expected.length());
+				assertEquals(expected.charAt(pos), t.delete(pos));
+				expected.deleteCharAt(pos);
+			} else {
+				int pos = random.nextInt(expected.length() + 1);
+				char c = (char) ('a' + random.nextInt(26));
+				t.add(c, pos);
+				expected.insert(pos, c);
+			}
+			if (i % 50 == 0)
+				check(t, expected);
+		}
+		check(t, expected);
+		for (int pos = 0; pos < expected.length(); pos++)
+			assertEquals(expected.charAt(pos), t.get(pos));
+	}
+
+	@Test
+	public void testSplitAndConcatenate() {
+		Random random = new Random(22);
+		String s = "";
+		for (int i = 0; i < 300; i++)
+			s += (char) ('a' + random.nextInt(26));
+		for (int pos = 0; pos <= s.length(); pos += 7) {
+			ChunkedEditTree t = new ChunkedEditTree(s, 8);
+			ChunkedEditTree rest = t.split(pos);
+			check(t, new StringBuilder(s.substring(0, pos)));
+			check(rest, new StringBuilder(s.substring(pos)));
+			rest.concatenate(t);
+			check(rest, new StringBuilder(s.substring(pos) + s.substring(0, pos)));
+			assertEquals(0, t.size());
+		}
+	}
+
+	@Test
+	public void testDeletesAndSplitsKeepChunksHalfFull() {
+		Random random = new Random(23);
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 20000; i++)
+			expected.append((char) ('a' + random.nextInt(26)));
+		// built full, so only the last chunk starts out short
+		ChunkedEditTree t = new ChunkedEditTree(expected.toString(), 8);
+		for (int i = 0; i < 3000; i++) {
+			int pos = random.nextInt(expected.length());
+			switch (random.nextInt(3)) {
+			case 0:
+				assertEquals(expected.charAt(pos), t.delete(pos));
+				expected.deleteCharAt(pos);
+				break;
+			case 1:
+				int length = random.nextInt(Math.min(20, expected.length() - pos) + 1);
+				assertEquals(expected.substring(pos, pos + length), t.delete(pos, length).toString());
+				expected.delete(pos, pos + length);
+				break;
+			default:
+				ChunkedEditTree rest = t.split(pos);
+				rest.concatenate(t);
+				t = rest;
+				expected = new StringBuilder(expected.substring(pos) + expected.substring(0, pos));
+			}
+			assertTrue(shortChunks(t.getRoot()) <= 1);
+			if (i % 100 == 0)
+				check(t, expected);
+		}
+		check(t, expected);
+	}
+
+	@Test
+	public void testDeleteRangeAndGetRange() {
+		String s = "the quick brown fox jumps over the lazy dog";
+		ChunkedEditTree t = new ChunkedEditTree(s, 5);
+		assertEquals("brown fox", t.get(10, 9));
+		ChunkedEditTree removed = t.delete(4, 6);
+		assertEquals("quick ", removed.toString());
+		check(t, new StringBuilder("the brown fox jumps over the lazy dog"));
+		try {
+			t.get(30, 10);
+			fail("Did not throw IndexOutOfBoundsException");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testAppendFillsChunks() {
+		ChunkedEditTree t = new ChunkedEditTree(64);
+		for (int i = 0; i < 64 * 1024; i++)
+			t.add((char) ('a' + i % 26));
+		// typing at the end leaves every chunk but the last one full
+		assertEquals(1024, chunks(t.getRoot()));
+		assertEquals(64 * 1024, t.size());
+		t.add('x', 100);
+		assertEquals(1025, chunks(t.getRoot()));
+		checkShape(t.getRoot());
+	}
+}
@@ -0,0 +1,79 @@
+package editortrees;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Walks cursors forwards, backwards and in random steps over trees of
+ * different shapes.
+ */
+public class CursorTest {
+
+	@Test
+	public void testForwardsAndBackwards() {
+		EditTree t = TestTrees.randomTree(1000, new Random(111));
+		String s = t.toString();
+		Cursor c = t.cursor();
+		StringBuilder forwards = new StringBuilder();
+		while (c.hasNext())
+			forwards.append((char) c.nextInt());
+		assertEquals(s, forwards.toString());
+		assertEquals(s.length(), c.position());
+		StringBuilder backwards = new StringBuilder();
+		while (c.hasPrevious())
+			backwards.append((char) c.previousInt());
+		assertEquals(s, backwards.reverse().toString());
+		assertEquals(0, c.position());
+	}
+
+	@Test
+	public void testRandomSteps() {
+		Random random = new Random(112);
+		EditTree t = TestTrees.randomTree(500, random);
+		String s = t.toString();
+		Cursor c = t.cursor(250);
+		int pos = 250;
+		for (int i = 0; i < 10000; i++) {
+			if (random.nextInt(100) == 0) {
+				pos = random.nextInt(s.length() + 1);
+				c.moveTo(pos);
+			} else if (random.nextBoolean() && pos < s.length()) {
+				assertEquals(s.charAt(pos++), c.nextInt());
+			} else if (pos > 0) {
+				assertEquals(s.charAt(--pos), c.previousInt());
+			}
+			assertEquals(pos, c.position());
+			assertEquals(pos < s.length(), c.hasNext());
+		}
+	}
+
+	@Test
+	public void testEnds() {
+		Cursor c = new EditTree().cursor();
+		assertFalse(c.hasNext());
+		assertFalse(c.hasPrevious());
+		try {
+			c.nextInt();
+			fail("Did not throw NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// expected
+		}
+		EditTree t = new EditTree("xy");
+		c = t.cursor(2);
+		assertEquals('y', c.previousInt());
+		assertTrue(c.hasNext());
+		try {
+			t.cursor(3);
+			fail("Did not throw IndexOutOfBoundsException");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+}
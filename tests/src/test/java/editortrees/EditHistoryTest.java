@@ -0,0 +1,129 @@
+package editortrees;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests undo, redo and keystroke coalescing in EditHistory.
+ */
+public class EditHistoryTest {
+
+	@Test
+	public void testUndoAndRedoEveryStep() {
+		Random random = new Random(41);
+		EditTree t = new EditTree("an editor buffer");
+		EditHistory history = new EditHistory(t);
+		List<String> states = new ArrayList<>();
+		states.add(t.toString());
+		for (int i = 0; i < 500; i++) {
+			history.markBoundary();
+			if (t.size() > 0 && random.nextInt(3) == 0)
+				history.delete(random.nextInt(t.size()));
+			else
+				history.add((char) ('a' + random.nextInt(26)), random.nextInt(t.size() + 1));
+			states.add(t.toString());
+		}
+		for (int i = states.size() - 2; i >= 0; i--) {
+			assertTrue(history.undo());
+			assertEquals(states.get(i), t.toString());
+		}
+		assertFalse(history.undo());
+		for (int i = 1; i < states.size(); i++) {
+			assertTrue(history.redo());
+			assertEquals(states.get(i), t.toString());
+		}
+		assertFalse(history.redo());
+		EditTreeConstructionTest.checkShape(t.getRoot(), null);
+	}
+
+	@Test
+	public void testKeystrokesCoalesce() {
+		EditTree t = new EditTree("ab");
+		EditHistory history = new EditHistory(t);
+		for (char c : "hello".toCharArray())
+			history.add(c, t.size() - 1);
+		assertEquals("ahellob", t.toString());
+		assertEquals(1, history.undoDepth());
+		history.delete(5); // backspace over the last two
+		history.delete(4);
+		history.delete(4); // then delete forward over the 'b'
+		assertEquals("ahel", t.toString());
+		assertEquals(2, history.undoDepth());
+		history.undo();
+		assertEquals("ahellob", t.toString());
+		history.undo();
+		assertEquals("ab", t.toString());
+		history.redo();
+		assertEquals("ahellob", t.toString());
+	}
+
+	@Test
+	public void testLongBackspaceRun() {
+		String text = "0123456789".repeat(2000);
+		EditTree t = new EditTree(text + "tail");
+		EditHistory history = new EditHistory(t);
+		for (int pos = text.length() - 1; pos >= 10; pos--)
+			history.delete(pos);
+		history.delete(10); // and forward over the 't'
+		assertEquals(text.substring(0, 10) + "ail", t.toString());
+		history.add('x', 0); // a new step, which ends the run
+		assertEquals(2, history.undoDepth());
+		history.undo();
+		history.undo();
+		assertEquals(text + "tail", t.toString());
+		history.redo();
+		assertEquals(text.substring(0, 10) + "ail", t.toString());
+	}
+
+	@Test
+	public void testDepthIsBounded() {
+		EditTree t = new EditTree();
+		EditHistory history = new EditHistory(t, 3);
+		for (int i = 0; i < 10; i++) {
+			history.markBoundary();
+			history.add((char) ('0' + i), i);
+		}
+		assertEquals(3, history.undoDepth());
+		while (history.undo())
+			;
+		assertEquals("0123456", t.toString());
+		history.add('x', 0);
+		assertEquals(0, history.redoDepth());
+	}
+
+	@Test
+	public void testConcatenate() {
+		EditTree t = new EditTree("left");
+		EditHistory history = new EditHistory(t);
+		history.concatenate(new EditTree("right"));
+		assertEquals("leftright", t.toString());
+		history.undo();
+		assertEquals("left", t.toString());
+		history.redo();
+		assertEquals("leftright", t.toString());
+	}
+
+	@Test
+	public void testDeleteRangeAndSplit() {
+		EditTree t = new EditTree("keep this, drop that");
+		EditHistory history = new EditHistory(t);
+		assertEquals(", drop", history.delete(9, 6).toString());
+		EditTree rest = history.split(4);
+		assertEquals("keep", t.toString());
+		rest.add('!');
+		history.undo();
+		assertEquals("keep this that", t.toString());
+		history.undo();
+		assertEquals("keep this, drop that", t.toString());
+		history.redo();
+		history.redo();
+		assertEquals("keep", t.toString());
+	}
+}
@@ -0,0 +1,68 @@
+package editortrees;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Counts the bytes allocated by the current thread during edits, to check
+ * that rebalancing allocates nothing: an add costs exactly its new Node and a
+ * delete costs nothing at all.
+ */
+public class EditTreeAllocationTest {
+
+	private static final int EDITS = 100000;
+	private static final long NODE_BYTES = 40; // with compressed oops
+	private static final long SLACK = 16 * 1024;
+
+	private static ThreadMXBean threads() {
+		java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		assumeTrue(threads instanceof ThreadMXBean);
+		ThreadMXBean hotSpot = (ThreadMXBean) threads;
+		assumeTrue(hotSpot.isThreadAllocatedMemorySupported());
+		hotSpot.setThreadAllocatedMemoryEnabled(true);
+		return hotSpot;
+	}
+
+	private static long allocated(ThreadMXBean threads) {
+		return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	private static void edit(EditTree t, int[] positions) {
+		for (int pos : positions)
+			t.add('x', pos % (t.size() + 1));
+		for (int pos : positions)
+			t.delete(pos % t.size());
+	}
+
+	@Test
+	public void testEditsAllocateOnlyNewNodes() {
+		ThreadMXBean threads = threads();
+		EditTree t = new EditTree(new char[EDITS]);
+		int[] positions = new int[EDITS];
+		Random random = new Random(31);
+		for (int i = 0; i < EDITS; i++)
+			positions[i] = random.nextInt(Integer.MAX_VALUE);
+		// warm up so that the measured run is compiled code
+		for (int i = 0; i < 5; i++)
+			edit(t, positions);
+
+		long before = allocated(threads);
+		for (int pos : positions)
+			t.add('x', pos % (t.size() + 1));
+		long adds = allocated(threads) - before;
+		assertTrue("bytes allocated by adds: " + adds, adds <= EDITS * NODE_BYTES + SLACK);
+
+		before = allocated(threads);
+		for (int pos : positions)
+			t.delete(pos % t.size());
+		long deletes = allocated(threads) - before;
+		assertTrue("bytes allocated by deletes: " + deletes, deletes <= SLACK);
+	}
+}
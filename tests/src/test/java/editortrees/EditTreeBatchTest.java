@@ -0,0 +1,108 @@
+package editortrees;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests applyBatch on both of its paths: a split and join sweep for small
+ * batches and a rebuild for large ones.
+ */
+public class EditTreeBatchTest {
+
+	private static String apply(String s, List<TextEdit> edits) {
+		StringBuilder expected = new StringBuilder(s);
+		for (int i = edits.size() - 1; i >= 0; i--) {
+			TextEdit e = edits.get(i);
+			expected.replace(e.getPos(), e.getPos() + e.getLength(), e.getText());
+		}
+		return expected.toString();
+	}
+
+	private static List<TextEdit> randomEdits(int size, int count, Random random) {
+		List<TextEdit> edits = new ArrayList<>();
+		int pos = 0;
+		for (int i = 0; i < count; i++) {
+			pos += random.nextInt(2 * size / count + 1);
+			if (pos > size)
+				break;
+			int length = random.nextInt(Math.min(4, size - pos) + 1);
+			String text = "+".repeat(random.nextInt(4));
+			edits.add(TextEdit.replace(pos, length, text));
+			pos += length;
+		}
+		return edits;
+	}
+
+	@Test
+	public void testBatchesOfEverySize() {
+		Random random = new Random(51);
+		for (int count : new int[] { 1, 5, 50, 500, 5000 }) {
+			String s = "0123456789".repeat(2000);
+			EditTree t = new EditTree(s);
+			List<TextEdit> edits = randomEdits(s.length(), count, random);
+			t.applyBatch(edits);
+			assertEquals(apply(s, edits), t.toString());
+			EditTreeConstructionTest.checkShape(t.getRoot(), null);
+		}
+	}
+
+	@Test
+	public void testDeleteEverything() {
+		EditTree t = new EditTree("abcdef");
+		t.applyBatch(Arrays.asList(TextEdit.delete(0, 3), TextEdit.delete(3, 3)));
+		assertEquals(0, t.size());
+		t.applyBatch(Arrays.asList(TextEdit.insert(0, "new")));
+		assertEquals("new", t.toString());
+	}
+
+	@Test
+	public void testInvalidBatches() {
+		EditTree t = new EditTree("abcdef");
+		try {
+			t.applyBatch(Arrays.asList(TextEdit.delete(2, 2), TextEdit.insert(3, "x")));
+			fail("Did not throw IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			t.applyBatch(Arrays.asList(TextEdit.delete(4, 3)));
+			fail("Did not throw IndexOutOfBoundsException");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+		assertEquals("abcdef", t.toString());
+	}
+
+	@Test
+	public void testAdjacentAndSpanningEdits() {
+		// small trees and dense edits, so that edits meet each other and span
+		// the nodes whose subtrees they are divided between
+		Random random = new Random(52);
+		for (int trial = 0; trial < 500; trial++) {
+			String s = "0123456789".repeat(1 + random.nextInt(20));
+			List<TextEdit> edits = new ArrayList<>();
+			int pos = 0;
+			while (edits.size() < 3) {
+				pos += random.nextInt(4);
+				if (pos > s.length())
+					break;
+				int length = random.nextInt(Math.min(30, s.length() - pos) + 1);
+				edits.add(TextEdit.replace(pos, length, "+".repeat(random.nextInt(3))));
+				pos += length;
+			}
+			EditTree t = new EditTree(s);
+			t.applyBatch(edits);
+			String expected = apply(s, edits);
+			assertEquals(expected, t.toString());
+			if (t.size() > 0)
+				EditTreeConstructionTest.checkShape(t.getRoot(), null);
+		}
+	}
+}
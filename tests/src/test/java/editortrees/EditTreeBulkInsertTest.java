@@ -0,0 +1,68 @@
+package editortrees;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests add(CharSequence, int), which joins a whole block into the tree at
+ * once.
+ */
+public class EditTreeBulkInsertTest {
+
+	@Test
+	public void testRandomBlocks() {
+		Random random = new Random(61);
+		EditTree t = new EditTree();
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 300; i++) {
+			int pos = random.nextInt(expected.length() + 1);
+			String block = TestTrees.randomText(random, random.nextInt(i + 2), 26);
+			t.add(block, pos);
+			expected.insert(pos, block);
+			if (i % 10 == 0) {
+				assertEquals(expected.toString(), t.toString());
+				EditTreeConstructionTest.checkShape(t.getRoot(), null);
+			}
+			// single characters still go in around the blocks
+			t.add('#', pos);
+			expected.insert(pos, '#');
+		}
+		assertEquals(expected.toString(), t.toString());
+		EditTreeConstructionTest.checkShape(t.getRoot(), null);
+	}
+
+	@Test
+	public void testLargePasteRotatesOnlyAlongThePath() {
+		EditTree t = new EditTree("0123456789".repeat(100000));
+		String paste = "abcdefghij".repeat(10000);
+		t.add(paste, 500001);
+		assertEquals(1100000, t.size());
+		assertEquals(paste, t.get(500001, paste.length()));
+		EditTreeConstructionTest.checkShape(t.getRoot(), null);
+		// at most a double rotation per level of the path
+		assertTrue(t.totalRotationCount() <= 2 * 21);
+	}
+
+	@Test
+	public void testEdges() {
+		EditTree t = new EditTree();
+		t.add("", 0);
+		assertEquals(0, t.size());
+		t.add("middle", 0);
+		t.add("<", 0);
+		t.add(">");
+		t.add("", 3);
+		assertEquals("<middle>", t.toString());
+		try {
+			t.add("x", 9);
+			fail("Did not throw IndexOutOfBoundsException");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package editortrees;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/**
+ * Reads trees through the CharSequence view: random access, sub-sequences,
+ * chars(), and java.util.regex running over the view.
+ */
+public class EditTreeCharSequenceTest {
+
+	private static String randomText(int length, Random random) {
+		StringBuilder s = new StringBuilder(length);
+		for (int i = 0; i < length; i++)
+			s.append(random.nextInt(6) == 0 ? ' ' : (char) ('a' + random.nextInt(4)));
+		return s.toString();
+	}
+
+	@Test
+	public void testRandomAccess() {
+		Random random = new Random(121);
+		String s = randomText(3000, random);
+		CharSequence view = new EditTree(s).asCharSequence();
+		assertEquals(s.length(), view.length());
+		int index = 0;
+		for (int i = 0; i < 20000; i++) {
+			switch (random.nextInt(4)) {
+			case 0:
+				index = random.nextInt(s.length());
+				break;
+			case 1:
+				index = Math.max(0, index - 1 - random.nextInt(20));
+				break;
+			default:
+				index = Math.min(s.length() - 1, index + random.nextInt(20));
+			}
+			assertEquals(s.charAt(index), view.charAt(index));
+		}
+	}
+
+	@Test
+	public void testSubSequenceAndChars() {
+		String s = randomText(1000, new Random(122));
+		CharSequence view = new EditTree(s).asCharSequence();
+		CharSequence sub = view.subSequence(100, 900).subSequence(50, 700);
+		assertEquals(s.substring(150, 800), sub.toString());
+		assertEquals(s.charAt(150), sub.charAt(0));
+		assertEquals(s.charAt(799), sub.charAt(649));
+		assertEquals(s.substring(150, 800), sub.chars()
+				.collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+				.toString());
+		assertEquals(s.chars().filter(c -> c == ' ').count(),
+				view.chars().filter(c -> c == ' ').count());
+		try {
+			sub.charAt(650);
+			fail("Did not throw IndexOutOfBoundsException");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testRegexOverTheTree() {
+		String s = randomText(20000, new Random(123));
+		CharSequence view = new EditTree(s).asCharSequence();
+		Pattern p = Pattern.compile("a[bc]+d|(?<=d)d+");
+		Matcher expected = p.matcher(s);
+		Matcher actual = p.matcher(view);
+		while (expected.find()) {
+			assertEquals(true, actual.find());
+			assertEquals(expected.start(), actual.start());
+			assertEquals(expected.group(), actual.group());
+		}
+		assertEquals(false, actual.find());
+	}
+}
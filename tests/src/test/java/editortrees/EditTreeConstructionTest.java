@@ -0,0 +1,107 @@
+package editortrees;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for the linear-time constructors, which must produce perfectly
+ * balanced trees without rotating.
+ */
+public class EditTreeConstructionTest {
+
+	/**
+	 * Checks links, sizes, heights and balance codes of the subtree at n.
+	 *
+	 * @return the height of n
+	 */
+	static int checkShape(Node n, Node parent) {
+		if (n == null)
+			return -1;
+		assertSame(parent, n.parent);
+		int leftHeight = checkShape(n.left, n);
+		int rightHeight = checkShape(n.right, n);
+		int leftSize = (n.left == null) ? 0 : n.left.size;
+		int rightSize = (n.right == null) ? 0 : n.right.size;
+		assertEquals(leftSize + 1 + rightSize, n.size);
+		assertEquals(Math.max(leftHeight, rightHeight) + 1, n.height);
+		assertTrue(Math.abs(leftHeight - rightHeight) <= 1);
+		Node.Code expected = (leftHeight > rightHeight) ? Node.Code.LEFT
+				: (leftHeight < rightHeight) ? Node.Code.RIGHT : Node.Code.SAME;
+		assertEquals(expected, n.balance);
+		return n.height;
+	}
+
+	private static String text(int length) {
+		StringBuilder s = new StringBuilder(length);
+		for (int i = 0; i < length; i++)
+			s.append((char) ('a' + i % 26));
+		return s.toString();
+	}
+
+	private static int floorLog2(int n) {
+		return 31 - Integer.numberOfLeadingZeros(n);
+	}
+
+	@Test
+	public void testBuildIsPerfectlyBalanced() {
+		for (int length = 1; length <= 300; length++) {
+			String s = text(length);
+			EditTree t = new EditTree(s);
+			assertEquals(s, t.toString());
+			assertEquals(0, t.totalRotationCount());
+			assertEquals(floorLog2(length), t.height());
+			checkShape(t.getRoot(), null);
+		}
+		assertEquals(-1, new EditTree("").height());
+		assertEquals("", new EditTree("").toString());
+	}
+
+	@Test
+	public void testBuildFromOtherSources() throws IOException {
+		String s = text(10000);
+		assertEquals(s, new EditTree(s.toCharArray()).toString());
+		assertEquals(s, new EditTree(new StringBuilder(s)).toString());
+		EditTree t = new EditTree(new StringReader(s));
+		assertEquals(s, t.toString());
+		assertEquals(floorLog2(s.length()), t.height());
+		assertEquals("", new EditTree(new StringReader("")).toString());
+	}
+
+	@Test
+	public void testBuildFromShortReads() throws IOException {
+		String s = text(100000);
+		Random random = new Random(141);
+		// hands over 1 to 3 characters per read, as a slow stream might
+		Reader trickle = new StringReader(s) {
+			@Override
+			public int read(char[] buffer, int offset, int length) throws IOException {
+				return super.read(buffer, offset, Math.min(length, 1 + random.nextInt(3)));
+			}
+		};
+		EditTree t = new EditTree(trickle);
+		assertEquals(s, t.toString());
+		checkShape(t.getRoot(), null);
+		t.add('X', 50000);
+		assertEquals(s.substring(0, 50000) + "X" + s.substring(50000), t.toString());
+		checkShape(t.getRoot(), null);
+	}
+
+	@Test
+	public void testEditAfterBuild() {
+		EditTree t = new EditTree(text(100));
+		t.add('X', 50);
+		t.add('Y', 0);
+		t.add('Z');
+		assertEquals("Y" + text(100).substring(0, 50) + "X"
+				+ text(100).substring(50) + "Z", t.toString());
+		checkShape(t.getRoot(), null);
+	}
+}
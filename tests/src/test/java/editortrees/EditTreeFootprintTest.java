@@ -0,0 +1,119 @@
+package editortrees;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+/**
+ * Measures retained heap per character with before/after heap deltas. The
+ * bounds assume compressed object pointers (the default for heaps under
+ * 32GB); the tests are skipped otherwise.
+ */
+public class EditTreeFootprintTest {
+
+	private static final int CHARACTERS = 1000000;
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		long used = Long.MAX_VALUE;
+		// a few rounds so that garbage from earlier tests is really gone
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+			used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+		}
+		return used;
+	}
+
+	private static void assumeCompressedOops() {
+		HotSpotDiagnosticMXBean hotSpot = ManagementFactory
+				.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+		assumeTrue(hotSpot != null
+				&& "true".equals(hotSpot.getVMOption("UseCompressedOops").getValue()));
+	}
+
+	@Test
+	public void testNodeBytesPerCharacter() {
+		assumeCompressedOops();
+		long before = usedHeap();
+		EditTree t = new EditTree();
+		for (int i = 0; i < CHARACTERS; i++)
+			t.add((char) ('a' + i % 26));
+		double bytesPerCharacter = (double) (usedHeap() - before) / t.size();
+		// 12 byte header, char (2), height (1), left, right, parent and
+		// balance (4 each), size and newlines (4 each): 39, padded to 40
+		assertTrue("bytes per character: " + bytesPerCharacter,
+				bytesPerCharacter <= 40.5);
+	}
+
+	@Test
+	public void testChunkedBytesPerCharacter() {
+		assumeCompressedOops();
+		long before = usedHeap();
+		ChunkedEditTree t = new ChunkedEditTree();
+		for (int i = 0; i < CHARACTERS; i++)
+			t.add((char) ('a' + i % 26));
+		double bytesPerCharacter = (double) (usedHeap() - before) / t.size();
+		// 2 bytes of chunk per character plus the node and array headers
+		assertTrue("bytes per character: " + bytesPerCharacter,
+				bytesPerCharacter <= 3.25);
+	}
+
+	@Test
+	public void testChunkedBytesPerCharacterAfterDeletes() {
+		assumeCompressedOops();
+		Random random = new Random(42);
+		long before = usedHeap();
+		ChunkedEditTree t = new ChunkedEditTree();
+		for (int i = 0; i < CHARACTERS; i++)
+			t.add((char) ('a' + i % 26));
+		while (t.size() > CHARACTERS / 20)
+			t.delete(random.nextInt(t.size()));
+		double bytesPerCharacter = (double) (usedHeap() - before) / t.size();
+		// chunks are merged once under half full, so at most twice the above
+		assertTrue("bytes per character: " + bytesPerCharacter,
+				bytesPerCharacter <= 6.5);
+	}
+
+	@Test
+	public void testChunkedBytesPerCharacterAfterSplits() {
+		assumeCompressedOops();
+		Random random = new Random(43);
+		long before = usedHeap();
+		ChunkedEditTree t = new ChunkedEditTree();
+		for (int i = 0; i < CHARACTERS; i++)
+			t.add((char) ('a' + i % 26));
+		for (int i = 0; i < 100000; i++) {
+			ChunkedEditTree rest = t.split(random.nextInt(t.size() + 1));
+			rest.concatenate(t);
+			t = rest;
+		}
+		// each seam is refilled, so the cut chunks do not pile up
+		double bytesPerCharacter = (double) (usedHeap() - before) / t.size();
+		assertTrue("bytes per character: " + bytesPerCharacter,
+				bytesPerCharacter <= 6.5);
+	}
+
+	@Test
+	public void testIndexBytesPerCharacter() {
+		assumeCompressedOops();
+		Random random = new Random(41);
+		char[] chars = new char[CHARACTERS];
+		for (int i = 0; i < chars.length; i++)
+			chars[i] = (char) ('a' + random.nextInt(26));
+		EditTree t = new EditTree(chars);
+		chars = null;
+		long before = usedHeap();
+		t.attachIndex(4);
+		double bytesPerCharacter = (double) (usedHeap() - before) / t.size();
+		// 12 bytes a node slot and 16 a gram slot, at most three quarters
+		// full; here about as much again as the tree itself
+		assertTrue("bytes per character: " + bytesPerCharacter,
+				bytesPerCharacter <= 48);
+	}
+}
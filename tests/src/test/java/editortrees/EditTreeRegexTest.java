@@ -0,0 +1,95 @@
+package editortrees;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/**
+ * Checks regex search over the tree against java.util.regex run on the
+ * equivalent String.
+ */
+public class EditTreeRegexTest {
+
+	private static String randomText(Random random, int length) {
+		StringBuilder s = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			int kind = random.nextInt(10);
+			s.append(kind == 0 ? ' ' : kind == 1 ? '\n' : (char) ('a' + random.nextInt(3)));
+		}
+		return s.toString();
+	}
+
+	private static final String[] PATTERNS = { "ab+c", "\\bab", "(a)(b)?c", "(?<=c)a+",
+			"^b", "c$", "a*", "\\s\\w{2}\\s", "(?m)^a.*$" };
+
+	@Test
+	public void testMatchesAgreeWithString() {
+		Random random = new Random(21);
+		String text = randomText(random, 2000);
+		EditTree t = new EditTree(text);
+		for (String regex : PATTERNS) {
+			Pattern pattern = Pattern.compile(regex);
+			Matcher expected = pattern.matcher(text);
+			Iterator<MatchResult> actual = t.matches(pattern);
+			while (expected.find()) {
+				MatchResult match = actual.next();
+				assertEquals(expected.groupCount(), match.groupCount());
+				for (int group = 0; group <= expected.groupCount(); group++) {
+					assertEquals(expected.start(group), match.start(group));
+					assertEquals(expected.end(group), match.end(group));
+					assertEquals(expected.group(group), match.group(group));
+				}
+			}
+			assertFalse(actual.hasNext());
+		}
+	}
+
+	@Test
+	public void testFindRegexFromPosition() {
+		Random random = new Random(22);
+		String text = randomText(random, 1000);
+		EditTree t = new EditTree(text);
+		for (String regex : PATTERNS) {
+			Pattern pattern = Pattern.compile(regex);
+			Matcher expected = pattern.matcher(text);
+			for (int pos = 0; pos <= text.length(); pos += 37) {
+				MatchResult match = t.findRegex(pattern, pos);
+				if (expected.find(pos)) {
+					assertEquals(expected.start(), match.start());
+					assertEquals(expected.group(), match.group());
+				} else {
+					assertNull(match);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testEdgeCases() {
+		EditTree t = new EditTree("abc");
+		assertEquals(0, t.findRegex(Pattern.compile("a"), -5).start());
+		assertEquals(3, t.findRegex(Pattern.compile("$"), 3).start());
+		assertNull(t.findRegex(Pattern.compile(""), 4));
+		assertNull(t.findRegex(Pattern.compile("^b"), 1));
+		assertEquals(1, t.findRegex(Pattern.compile("(?<=a)b"), 1).start());
+		assertNull(new EditTree().findRegex(Pattern.compile("a"), 0));
+		Iterator<MatchResult> matches = t.matches(Pattern.compile("x"));
+		assertFalse(matches.hasNext());
+		try {
+			matches.next();
+			fail("Did not throw NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// expected
+		}
+	}
+}
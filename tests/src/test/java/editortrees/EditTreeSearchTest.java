@@ -0,0 +1,105 @@
+package editortrees;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+/**
+ * Checks the tree's search operations against String.indexOf on random text
+ * over a small alphabet, where partial matches and overlaps are common.
+ */
+public class EditTreeSearchTest {
+
+	private static EditTree treeOf(String s) {
+		EditTree t = new EditTree();
+		for (int i = 0; i < s.length(); i++)
+			t.add(s.charAt(i));
+		return t;
+	}
+
+	@Test
+	public void testFindMatchesIndexOf() {
+		Random random = new Random(11);
+		String text = TestTrees.randomText(random, 3000, 3);
+		EditTree t = treeOf(text);
+		for (int i = 0; i < 300; i++) {
+			String pattern = TestTrees.randomText(random, 1 + random.nextInt(8), 3);
+			int pos = random.nextInt(text.length() + 2) - 1;
+			assertEquals(text.indexOf(pattern, Math.max(pos, 0)),
+					t.find(pattern, pos));
+			assertEquals(text.indexOf(pattern), t.find(pattern));
+		}
+	}
+
+	@Test
+	public void testFindSelfOverlappingPattern() {
+		EditTree t = treeOf("aaabaaabaaaab");
+		assertEquals(8, t.find("aaaab"));
+		assertEquals(1, t.find("aabaaab"));
+		assertEquals(-1, t.find("aabaaab", 2));
+		assertEquals(4, t.find("aaab", 1));
+		assertEquals(9, t.find("aaab", 5));
+	}
+
+	@Test
+	public void testFindEmptyPattern() {
+		EditTree t = treeOf("abc");
+		assertEquals(0, t.find(""));
+		assertEquals(3, t.find("", 3));
+		assertEquals(-1, t.find("", 4));
+		assertEquals(-1, t.find("abcd"));
+	}
+
+	private static int[] indexesOf(String text, String pattern) {
+		IntStream.Builder found = IntStream.builder();
+		for (int i = text.indexOf(pattern); i >= 0; i = text.indexOf(pattern, i + 1))
+			found.accept(i);
+		return found.build().toArray();
+	}
+
+	@Test
+	public void testFindAllMatchesIndexOf() {
+		Random random = new Random(12);
+		String text = TestTrees.randomText(random, 3000, 3);
+		EditTree t = treeOf(text);
+		for (int i = 0; i < 100; i++) {
+			String pattern = TestTrees.randomText(random, 1 + random.nextInt(6), 3);
+			assertArrayEquals(indexesOf(text, pattern), t.findAll(pattern));
+		}
+		assertArrayEquals(new int[] { 0, 1, 2, 4 }, treeOf("aaaba").findAll("a"));
+		assertArrayEquals(new int[] { 0, 1 }, treeOf("aaaa").findAll("aaa"));
+		assertArrayEquals(new int[0], treeOf("ab").findAll("abc"));
+		assertArrayEquals(new int[] { 0, 1, 2 }, treeOf("ab").findAll(""));
+	}
+
+	@Test
+	public void testFindAllAcrossPartitions() {
+		// Large enough to split many times, with occurrences planted across
+		// every subtree boundary the search could cut at.
+		Random random = new Random(13);
+		int length = 16 * ParallelFind.MIN_SPLIT;
+		StringBuilder s = new StringBuilder(TestTrees.randomText(random, length, 2));
+		String needle = "abbaabba";
+		for (int cut = 1; cut < length; cut *= 2)
+			for (int offset = 1; offset < needle.length(); offset++)
+				if (cut - offset + needle.length() <= length && cut >= offset)
+					s.replace(cut - offset, cut - offset + needle.length(), needle);
+		String text = s.toString();
+		EditTree t = new EditTree(text);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (String pattern : new String[] { needle, "a", "ab", "bbbbbbbbbbbb", "aaaa" }) {
+				int[] expected = indexesOf(text, pattern);
+				assertArrayEquals(expected, t.findAll(pattern));
+				assertArrayEquals(expected, t.findAll(pattern, pool));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
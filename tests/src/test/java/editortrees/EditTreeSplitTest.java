@@ -0,0 +1,78 @@
+package editortrees;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests join-based split and the range delete built on it.
+ */
+public class EditTreeSplitTest {
+
+	private static void checkShape(EditTree t) {
+		if (t.size() > 0)
+			EditTreeConstructionTest.checkShape(t.getRoot(), null);
+	}
+
+	@Test
+	public void testSplitEveryPosition() {
+		Random random = new Random(81);
+		EditTree original = TestTrees.randomTree(257, random);
+		String s = original.toString();
+		for (int pos = 0; pos <= s.length(); pos++) {
+			EditTree left = new EditTree(original);
+			EditTree right = left.split(pos);
+			assertEquals(s.substring(0, pos), left.toString());
+			assertEquals(s.substring(pos), right.toString());
+			checkShape(left);
+			checkShape(right);
+			left.concatenate(right);
+			assertEquals(s, left.toString());
+			checkShape(left);
+		}
+	}
+
+	@Test
+	public void testSplitLargeTreeIsLogarithmic() {
+		EditTree t = new EditTree("0123456789".repeat(100000));
+		Random random = new Random(82);
+		for (int i = 0; i < 100; i++) {
+			int pos = random.nextInt(t.size() + 1);
+			int before = t.totalRotationCount();
+			EditTree right = t.split(pos);
+			// each join on the way up is paid for by the height it climbs
+			assertTrue(t.totalRotationCount() + right.totalRotationCount() - before
+					<= 4 * 21);
+			assertEquals(pos, t.size());
+			t.concatenate(right);
+		}
+		assertEquals(1000000, t.size());
+		checkShape(t);
+	}
+
+	@Test
+	public void testDeleteRange() {
+		Random random = new Random(83);
+		EditTree t = TestTrees.randomTree(2000, random);
+		StringBuilder expected = new StringBuilder(t.toString());
+		while (expected.length() > 0) {
+			int start = random.nextInt(expected.length());
+			int length = random.nextInt(Math.min(50, expected.length() - start) + 1);
+			EditTree removed = t.delete(start, length);
+			assertEquals(expected.substring(start, start + length), removed.toString());
+			expected.delete(start, start + length);
+			assertEquals(expected.toString(), t.toString());
+			checkShape(t);
+		}
+		try {
+			new EditTree("abc").delete(2, 2);
+			fail("Did not throw IndexOutOfBoundsException");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+}
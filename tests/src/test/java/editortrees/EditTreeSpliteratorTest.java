@@ -0,0 +1,72 @@
+package editortrees;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+
+import org.junit.Test;
+
+/**
+ * Splits trees all the way down and checks that the pieces have exact sizes
+ * and together hold the tree in order; then runs parallel streams.
+ */
+public class EditTreeSpliteratorTest {
+
+	private static void splitAll(Spliterator.OfInt s, List<Spliterator.OfInt> pieces) {
+		long size = s.estimateSize();
+		Spliterator.OfInt prefix = s.trySplit();
+		if (prefix == null) {
+			pieces.add(s);
+			return;
+		}
+		assertTrue(prefix.estimateSize() > 0 && s.estimateSize() > 0);
+		assertEquals(size, prefix.estimateSize() + s.estimateSize());
+		splitAll(prefix, pieces);
+		splitAll(s, pieces);
+	}
+
+	@Test
+	public void testSplitsCoverTheTreeInOrder() {
+		EditTree t = TestTrees.randomTree(50000, new Random(131));
+		List<Spliterator.OfInt> pieces = new ArrayList<>();
+		Spliterator.OfInt s = t.spliterator();
+		assertTrue(s.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED
+				| Spliterator.ORDERED));
+		splitAll(s, pieces);
+		assertTrue(pieces.size() > 16);
+		StringBuilder joined = new StringBuilder();
+		for (Spliterator.OfInt piece : pieces) {
+			long size = piece.getExactSizeIfKnown();
+			int before = joined.length();
+			// mixes single steps with bulk traversal
+			piece.tryAdvance((int c) -> joined.append((char) c));
+			piece.forEachRemaining((int c) -> joined.append((char) c));
+			assertEquals(size, joined.length() - before);
+		}
+		assertEquals(t.toString(), joined.toString());
+	}
+
+	@Test
+	public void testParallelStreams() {
+		EditTree t = TestTrees.randomTree(200000, new Random(132));
+		String s = t.toString();
+		assertEquals(s.chars().filter(c -> c == 'e').count(),
+				t.chars().parallel().filter(c -> c == 'e').count());
+		assertEquals(s, t.chars().parallel()
+				.collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+				.toString());
+		assertEquals(s.substring(1000, 150000).chars().sum(),
+				t.asCharSequence().subSequence(1000, 150000).chars().parallel().sum());
+	}
+
+	@Test
+	public void testSmallTreesDoNotSplit() {
+		assertNull(new EditTree("short").spliterator().trySplit());
+		assertEquals(0, new EditTree().chars().parallel().count());
+	}
+}
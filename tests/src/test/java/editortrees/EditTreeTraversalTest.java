@@ -0,0 +1,118 @@
+package editortrees;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for the operations that read runs of characters out of a tree rather
+ * than one position at a time.
+ */
+public class EditTreeTraversalTest {
+
+	@Test
+	public void testGetRangeMatchesToString() {
+		EditTree t = TestTrees.randomTree(500, new Random(1));
+		String s = t.toString();
+		for (int pos = 0; pos <= s.length(); pos += 7) {
+			for (int length = 0; pos + length <= s.length(); length += 13) {
+				assertEquals(s.substring(pos, pos + length), t.get(pos, length));
+			}
+		}
+	}
+
+	@Test
+	public void testGetRangeIntoArray() {
+		EditTree t = TestTrees.randomTree(200, new Random(2));
+		String s = t.toString();
+		char[] dest = new char[60];
+		dest[0] = '#';
+		dest[51] = '#';
+		t.get(120, 50, dest, 1);
+		assertEquals("#" + s.substring(120, 170) + "#", new String(dest, 0, 52));
+	}
+
+	@Test
+	public void testGetRangeIntoCharBuffer() {
+		EditTree t = TestTrees.randomTree(200, new Random(3));
+		String s = t.toString();
+		CharBuffer dest = CharBuffer.allocate(100);
+		dest.put('#');
+		t.get(3, 80, dest);
+		dest.flip();
+		assertEquals("#" + s.substring(3, 83), dest.toString());
+	}
+
+	@Test
+	public void testGetRangeInvalid() {
+		EditTree t = TestTrees.randomTree(20, new Random(4));
+		try {
+			t.get(15, 10, new char[10], 0);
+			fail("Did not throw IndexOutOfBoundsException");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+		try {
+			t.get(0, 10, new char[10], 1);
+			fail("Did not throw IndexOutOfBoundsException");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+		assertEquals("", t.get(20, 0));
+	}
+
+	@Test
+	public void testToStringDeepTree() {
+		EditTree t = new EditTree();
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 100000; i++) {
+			t.add((char) ('a' + i % 26));
+			expected.append((char) ('a' + i % 26));
+		}
+		assertEquals(expected.toString(), t.toString());
+		assertEquals("", new EditTree().toString());
+	}
+
+	@Test
+	public void testWriteToWriterAndAppendable() throws IOException {
+		EditTree t = TestTrees.randomTree(20000, new Random(5));
+		StringWriter writer = new StringWriter();
+		t.writeTo(writer);
+		assertEquals(t.toString(), writer.toString());
+		StringBuilder builder = new StringBuilder("#");
+		t.writeTo(builder);
+		assertEquals("#" + t.toString(), builder.toString());
+		builder.setLength(0);
+		new EditTree().writeTo(builder);
+		assertEquals("", builder.toString());
+	}
+
+	@Test
+	public void testWriteToChannel() throws IOException {
+		EditTree t = new EditTree();
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			// mixes ASCII, two-byte and surrogate-pair characters
+			char c = (i % 3 == 0) ? 'x' : (i % 3 == 1) ? '\u00e9' : '\ud83d';
+			t.add(c);
+			expected.append(c);
+			if (c == '\ud83d') {
+				t.add('\ude00');
+				expected.append('\ude00');
+			}
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		t.writeTo(Channels.newChannel(bytes), StandardCharsets.UTF_8);
+		assertEquals(expected.toString(),
+				new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,131 @@
+package editortrees;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Checks that every version of a PersistentEditTree keeps its contents after
+ * later edits, and that versions share all but O(log N) of their nodes.
+ */
+public class PersistentEditTreeTest {
+
+	/**
+	 * Checks sizes, heights and the AVL property of the subtree at n.
+	 *
+	 * @return the height of n
+	 */
+	private static int checkShape(PersistentNode n) {
+		if (n == null)
+			return -1;
+		int leftHeight = checkShape(n.left);
+		int rightHeight = checkShape(n.right);
+		assertEquals(PersistentNode.size(n.left) + 1 + PersistentNode.size(n.right), n.size);
+		assertEquals(Math.max(leftHeight, rightHeight) + 1, n.height);
+		assertTrue(Math.abs(leftHeight - rightHeight) <= 1);
+		return n.height;
+	}
+
+	private static void collect(PersistentNode n, Set<PersistentNode> nodes) {
+		if (n == null)
+			return;
+		nodes.add(n);
+		collect(n.left, nodes);
+		collect(n.right, nodes);
+	}
+
+	/**
+	 * @return how many nodes of after are not also in before
+	 */
+	private static int newNodes(PersistentEditTree before, PersistentEditTree after) {
+		Set<PersistentNode> old = Collections.newSetFromMap(new IdentityHashMap<>());
+		collect(before.getRoot(), old);
+		Set<PersistentNode> current = Collections.newSetFromMap(new IdentityHashMap<>());
+		collect(after.getRoot(), current);
+		current.removeAll(old);
+		return current.size();
+	}
+
+	@Test
+	public void testOldVersionsAreUnchanged() {
+		Random random = new Random(31);
+		List<PersistentEditTree> versions = new ArrayList<>();
+		List<String> expected = new ArrayList<>();
+		PersistentEditTree t = new PersistentEditTree();
+		StringBuilder s = new StringBuilder();
+		for (int i = 0; i < 3000; i++) {
+			if (s.length() > 0 && random.nextInt(3) == 0) {
+				int pos = random.nextInt(s.length());
+				assertEquals(s.charAt(pos), t.get(pos));
+				t = t.delete(pos);
+				s.deleteCharAt(pos);
+			} else {
+				int pos = random.nextInt(s.length() + 1);
+				char c = (char) ('a' + random.nextInt(26));
+				t = t.add(c, pos);
+				s.insert(pos, c);
+			}
+			if (i % 100 == 0) {
+				versions.add(t);
+				expected.add(s.toString());
+			}
+		}
+		for (int i = 0; i < versions.size(); i++) {
+			assertEquals(expected.get(i), versions.get(i).toString());
+			checkShape(versions.get(i).getRoot());
+		}
+	}
+
+	@Test
+	public void testSplitConcatenateAndDeleteRange() {
+		String s = "the quick brown fox jumps over the lazy dog";
+		PersistentEditTree t = new PersistentEditTree(s);
+		for (int pos = 0; pos <= s.length(); pos++) {
+			PersistentEditTree[] halves = t.split(pos);
+			assertEquals(s.substring(0, pos), halves[0].toString());
+			assertEquals(s.substring(pos), halves[1].toString());
+			checkShape(halves[0].getRoot());
+			checkShape(halves[1].getRoot());
+			PersistentEditTree swapped = halves[1].concatenate(halves[0]);
+			assertEquals(s.substring(pos) + s.substring(0, pos), swapped.toString());
+			checkShape(swapped.getRoot());
+		}
+		assertEquals("the brown fox jumps over the lazy dog", t.delete(4, 6).toString());
+		assertEquals("brown fox", t.get(10, 9));
+		assertEquals(s, t.toString());
+	}
+
+	@Test
+	public void testEditsCopyOnlyOnePath() {
+		PersistentEditTree t = new PersistentEditTree(new EditTree("abcdefghij".repeat(10000)));
+		int bound = 2 * (t.height() + 2);
+		Random random = new Random(32);
+		for (int i = 0; i < 20; i++) {
+			int pos = random.nextInt(t.size());
+			PersistentEditTree added = t.add('x', pos);
+			assertTrue(newNodes(t, added) <= bound);
+			PersistentEditTree deleted = t.delete(pos);
+			assertTrue(newNodes(t, deleted) <= bound);
+		}
+	}
+
+	@Test
+	public void testCopyConstructorIsIndependent() {
+		EditTree e = new EditTree("persistent");
+		EditTree copy = new EditTree(e);
+		PersistentEditTree snapshot = new PersistentEditTree(e);
+		e.add('!');
+		e.delete(0);
+		assertEquals("persistent", copy.toString());
+		assertEquals("persistent", snapshot.toString());
+		EditTreeConstructionTest.checkShape(copy.getRoot(), null);
+	}
+}
@@ -0,0 +1,155 @@
+package editortrees;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests that subtree summaries survive every kind of edit, using two
+ * summaries: UTF-8 byte length, and a word count that needs to know whether
+ * a run starts and ends inside a word.
+ */
+public class SummarizedEditTreeTest {
+
+	static final Summarizer<Integer> UTF8_LENGTH = new Summarizer<Integer>() {
+		public Integer identity() {
+			return 0;
+		}
+
+		public Integer summarize(char c) {
+			if (c < 0x80)
+				return 1;
+			if (c < 0x800)
+				return 2;
+			return Character.isSurrogate(c) ? 2 : 3;
+		}
+
+		public Integer combine(Integer left, Integer right) {
+			return left + right;
+		}
+	};
+
+	/**
+	 * Words in a run, and whether it starts and ends with a letter; long[]
+	 * {words, startsInWord, endsInWord, length}.
+	 */
+	static final Summarizer<long[]> WORDS = new Summarizer<long[]>() {
+		public long[] identity() {
+			return new long[] { 0, 0, 0, 0 };
+		}
+
+		public long[] summarize(char c) {
+			long letter = Character.isLetter(c) ? 1 : 0;
+			return new long[] { letter, letter, letter, 1 };
+		}
+
+		public long[] combine(long[] left, long[] right) {
+			if (left[3] == 0)
+				return right;
+			if (right[3] == 0)
+				return left;
+			long joined = (left[2] == 1 && right[1] == 1) ? 1 : 0;
+			return new long[] { left[0] + right[0] - joined, left[1], right[2],
+					left[3] + right[3] };
+		}
+	};
+
+	private static long words(String s) {
+		long count = 0;
+		for (int i = 0; i < s.length(); i++)
+			if (Character.isLetter(s.charAt(i))
+					&& (i == 0 || !Character.isLetter(s.charAt(i - 1))))
+				count++;
+		return count;
+	}
+
+	private static int utf8Length(String s) {
+		return s.getBytes(StandardCharsets.UTF_8).length;
+	}
+
+	private static String randomText(int length, Random random) {
+		String alphabet = "ab  é中";
+		StringBuilder s = new StringBuilder(length);
+		for (int i = 0; i < length; i++)
+			s.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		return s.toString();
+	}
+
+	private static void checkRanges(SummarizedEditTree<long[]> t, Random random) {
+		String s = t.toString();
+		assertEquals(words(s), t.summary()[0]);
+		for (int i = 0; i < 20; i++) {
+			int pos = random.nextInt(s.length() + 1);
+			int length = random.nextInt(s.length() - pos + 1);
+			assertEquals(words(s.substring(pos, pos + length)), t.summary(pos, length)[0]);
+		}
+	}
+
+	@Test
+	public void testSummariesThroughEdits() {
+		Random random = new Random(101);
+		SummarizedEditTree<long[]> t = new SummarizedEditTree<>(randomText(300, random), WORDS);
+		checkRanges(t, random);
+		for (int i = 0; i < 400; i++) {
+			int pos = random.nextInt(t.size() + 1);
+			switch (random.nextInt(5)) {
+			case 0:
+				t.add(random.nextBoolean() ? ' ' : 'w', pos);
+				break;
+			case 1:
+				if (pos < t.size())
+					t.delete(pos);
+				break;
+			case 2:
+				t.add(randomText(random.nextInt(30), random), pos);
+				break;
+			case 3:
+				t.delete(pos, random.nextInt(Math.min(20, t.size() - pos) + 1));
+				break;
+			default:
+				@SuppressWarnings("unchecked")
+				SummarizedEditTree<long[]> right = (SummarizedEditTree<long[]>) t.split(pos);
+				checkRanges(right, random);
+				t.concatenate(right);
+			}
+			if (i % 20 == 0)
+				checkRanges(t, random);
+		}
+		checkRanges(t, random);
+		EditTreeConstructionTest.checkShape(t.getRoot(), null);
+	}
+
+	@Test
+	public void testPrefixSummariesAndCopies() {
+		Random random = new Random(102);
+		String s = randomText(1000, random);
+		SummarizedEditTree<Integer> t = new SummarizedEditTree<>(s, UTF8_LENGTH);
+		for (int pos = 0; pos <= s.length(); pos += 37)
+			assertEquals(utf8Length(s.substring(0, pos)), (int) t.prefixSummary(pos));
+		SummarizedEditTree<Integer> copy = new SummarizedEditTree<>(t);
+		t.add("éé", 0);
+		assertEquals(utf8Length(s) + 4, (int) t.summary());
+		assertEquals(utf8Length(s), (int) copy.summary());
+		t.applyBatch(Arrays.asList(TextEdit.delete(0, 2)));
+		assertEquals(utf8Length(s), (int) t.summary());
+		assertEquals(0, (int) new SummarizedEditTree<>(UTF8_LENGTH).summary());
+	}
+
+	@Test
+	public void testTreesWithDifferentSummariesDoNotMix() {
+		SummarizedEditTree<Integer> t = new SummarizedEditTree<>("abc", UTF8_LENGTH);
+		try {
+			t.concatenate(new EditTree("def"));
+			fail("Did not throw IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		EditTree joined = EditTree.join(t, '-', new SummarizedEditTree<>("def", UTF8_LENGTH));
+		assertEquals(7, (int) ((SummarizedEditTree<?>) joined).summary());
+	}
+}
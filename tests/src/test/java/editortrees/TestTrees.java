@@ -0,0 +1,29 @@
+package editortrees;
+
+import java.util.Random;
+
+/**
+ * Random trees and text shared by the tests.
+ */
+class TestTrees {
+
+	/**
+	 * @return a tree of size random letters, each added at a random position
+	 */
+	static EditTree randomTree(int size, Random random) {
+		EditTree t = new EditTree();
+		for (int i = 0; i < size; i++)
+			t.add((char) ('a' + random.nextInt(26)), random.nextInt(i + 1));
+		return t;
+	}
+
+	/**
+	 * @return length random characters from the first alphabet letters
+	 */
+	static String randomText(Random random, int length, int alphabet) {
+		StringBuilder s = new StringBuilder(length);
+		for (int i = 0; i < length; i++)
+			s.append((char) ('a' + random.nextInt(alphabet)));
+		return s.toString();
+	}
+}
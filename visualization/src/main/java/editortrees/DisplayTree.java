@@ -2,6 +2,7 @@ package editortrees;
 
 	
 
+	import java.awt.GraphicsEnvironment;
 	import java.awt.Graphics;
 
 	import javax.swing.JFrame;
@@ -10,6 +11,8 @@ package editortrees;
 		
 		public static void display(EditTree t)
 		{
+			if (GraphicsEnvironment.isHeadless())
+				return; // nowhere to draw, e.g. when the tests run in a build
 			TreeFrame frame = new TreeFrame();
 			frame.root=t.getRoot();
 			frame.setSize(600,600);
@@ -17,6 +20,8 @@ package editortrees;
 		}
 		public static void display(Node n)
 		{
+			if (GraphicsEnvironment.isHeadless())
+				return;
 			TreeFrame frame = new TreeFrame();
 			frame.root=n;
 			frame.setSize(600,600);